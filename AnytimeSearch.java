@@ -0,0 +1,208 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains an anytime search strategy, Anytime Repairing A* (ARA*),
+ * called by GraphSearch.search.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.*;
+
+import static java.lang.System.out;
+
+/**
+ * Receives the solutions of an anytime search as they improve.
+ *
+ * @param <S> class for states
+ * @param <A> class for actions
+ */
+interface AnytimeSolutionListener<S, A> {
+    /**
+     * Called every time a cheaper solution has been found.
+     * @param solution the new solution
+     * @param bound the cost of the solution is at most bound times the optimal cost
+     *              (with an admissible heuristic)
+     */
+    void improved(Solution<S, A> solution, double bound);
+}
+
+class AnytimeSearch<S, A> {
+
+    /**
+     * Anytime Repairing A* (Likhachev, Gordon and Thrun, 2003).
+     *
+     * Runs weighted A* with f = g + w * h, which quickly finds a solution costing at most w times
+     * the optimal cost, and then decreases w and repairs the search tree, each time returning a better
+     * solution, until w reaches 1 (the solution is optimal) or the time budget is spent.
+     *
+     * Search effort is reused between iterations: only the states whose path cost has decreased since
+     * they were expanded (kept in the INCONS list) are put back into the frontier, together with the
+     * states still in it.
+     *
+     * @return the best solution found within the time budget, or null if none
+     */
+    static <S, A> Solution<S, A> search(SearchProblem<S, A> problem,
+                                        SearchHeuristic<S, A> heuristic,
+                                        double initialWeight,
+                                        double weightDecrement,
+                                        long timeBudgetMillis,
+                                        AnytimeSolutionListener<S, A> listener,
+                                        boolean print) {
+        if (heuristic == null)
+            heuristic = new NullHeuristic<>();
+        if (initialWeight < 1 || weightDecrement <= 0)
+            throw new IllegalArgumentException("Expecting an initial weight of at least 1 and a positive decrement, got " +
+                    initialWeight + " and " + weightDecrement);
+
+        long deadline = timeBudgetMillis == Long.MAX_VALUE ? Long.MAX_VALUE :
+                System.currentTimeMillis() + timeBudgetMillis;
+        AnytimeSearch<S, A> search = new AnytimeSearch<>(problem, heuristic, deadline);
+
+        double weight = initialWeight;
+        S startState = problem.getStartState();
+        Node<S, A> startNode = new Node<>(startState, null, null, 0, problem.evaluateHeuristic(heuristic, startState));
+        search.bestNodes.put(startState, startNode);
+        search.open = search.newFrontier(weight);
+        search.open.push(startNode);
+
+        while (true) {
+            Node<S, A> previousGoal = search.goalNode;
+            boolean completed = search.improvePath(weight);
+            double bound = Double.POSITIVE_INFINITY;
+
+            if (search.goalNode != null) {
+                double lowerBound = search.lowerBound();
+                bound = lowerBound >= search.goalNode.pathCost ? 1 :
+                        Math.min(weight, search.goalNode.pathCost / lowerBound);
+                if (print)
+                    out.println("Weight " + weight + ": solution cost " + search.goalNode.pathCost +
+                            ", suboptimality bound " + bound + ", expanded " + problem.getExpandedCount());
+                if (listener != null && search.goalNode != previousGoal)
+                    listener.improved(search.solution(), bound);
+            }
+
+            // the solution is already known to be optimal when the bound is 1
+            if (!completed || weight <= 1 || bound <= 1)
+                break;
+
+            weight = Math.max(1, weight - weightDecrement);
+            search.repair(weight);
+        }
+
+        return search.solution();
+    }
+
+    private final SearchProblem<S, A> problem;
+    private final SearchHeuristic<S, A> heuristic;
+    private final long deadline;
+
+    // the cheapest node found so far for every generated state
+    private final Map<S, Node<S, A>> bestNodes = new HashMap<>();
+    private Util.IndexedPriorityQueue<S, Node<S, A>> open;
+    private final Set<S> closed = new HashSet<>();
+    // expanded states whose path cost has decreased during the current iteration
+    private final Map<S, Node<S, A>> inconsistent = new HashMap<>();
+    // the cheapest goal node found so far
+    private Node<S, A> goalNode = null;
+
+    private AnytimeSearch(SearchProblem<S, A> problem, SearchHeuristic<S, A> heuristic, long deadline) {
+        this.problem = problem;
+        this.heuristic = heuristic;
+        this.deadline = deadline;
+    }
+
+    private Util.IndexedPriorityQueue<S, Node<S, A>> newFrontier(double weight) {
+        return new Util.IndexedPriorityQueue<>(node -> node.state,
+                Comparator.comparingDouble(node -> node.pathCost + weight * node.heuristicValue));
+    }
+
+    /**
+     * Expands nodes until the goal node found so far is at least as good as every node in the frontier.
+     * @return false if the time budget ran out first
+     */
+    private boolean improvePath(double weight) {
+        while (!open.isEmpty()) {
+            Node<S, A> top = open.peek();
+            if (goalNode != null && goalNode.pathCost <= top.pathCost + weight * top.heuristicValue)
+                return true;
+            if ((problem.getExpandedCount() & 0xFF) == 0 && System.currentTimeMillis() > deadline)
+                return false;
+
+            problem.doFrontierBookKeeping(open.size());
+            Node<S, A> node = open.pop();
+            closed.add(node.state);
+            if (problem.isGoalState(node.state)) {
+                // only the start node is not checked when generated
+                if (goalNode == null || node.pathCost < goalNode.pathCost)
+                    goalNode = node;
+                continue;
+            }
+
+            problem.offerNode(node);
+            for (SuccessorInfo<S, A> successor : problem.expand(node.state)) {
+                double childPathCost = node.pathCost + successor.cost;
+                Node<S, A> previous = bestNodes.get(successor.nextState);
+                if (previous != null && previous.pathCost <= childPathCost)
+                    continue;
+
+                double childHeuristic = previous != null ? previous.heuristicValue :
+                        problem.evaluateHeuristic(heuristic, successor.nextState);
+                Node<S, A> child = new Node<>(successor.nextState, node, successor.action, childPathCost, childHeuristic);
+                bestNodes.put(child.state, child);
+
+                if (problem.isGoalState(child.state) && (goalNode == null || childPathCost < goalNode.pathCost))
+                    goalNode = child;
+
+                if (closed.contains(child.state))
+                    inconsistent.put(child.state, child);
+                else
+                    open.push(child);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prepares the next iteration: the frontier and the inconsistent states
+     * are ordered by the new weight, and all states can be expanded again.
+     */
+    private void repair(double weight) {
+        Util.IndexedPriorityQueue<S, Node<S, A>> newOpen = newFrontier(weight);
+        for (Node<S, A> node : open.items())
+            newOpen.push(node);
+        for (Node<S, A> node : inconsistent.values())
+            newOpen.push(node);
+
+        open = newOpen;
+        inconsistent.clear();
+        closed.clear();
+    }
+
+    /**
+     * @return a lower bound on the optimal cost: the smallest g + h in the frontier and the INCONS list,
+     * or the cost of the goal node found if nothing cheaper is left to explore
+     */
+    private double lowerBound() {
+        double bound = goalNode.pathCost;
+        for (Node<S, A> node : open.items())
+            bound = Math.min(bound, node.pathCost + node.heuristicValue);
+        for (Node<S, A> node : inconsistent.values())
+            bound = Math.min(bound, node.pathCost + node.heuristicValue);
+        return bound;
+    }
+
+    private Solution<S, A> solution() {
+        if (goalNode == null)
+            return null;
+        return new Solution<>(goalNode.state, goalNode.getActions(), goalNode.pathCost);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the batch search: solving many independent problems concurrently,
+ * for instance path queries between different locations of the same maze.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+class BatchSearch {
+
+    /**
+     * Solves every problem with the given strategy, concurrently, and returns the results
+     * as they are found: the stream yields them in completion order, not in the order of the problems.
+     *
+     * The problems are solved on one virtual thread each when the JVM supports virtual threads and
+     * options.batchThreads is 0, and otherwise on a fork-join pool of options.batchThreads threads
+     * (one per processor if 0). Each search runs on its own problem instance, so the problems must not
+     * share mutable state. They can share a Maze: the search problems only read its walls, which never change.
+     * The heuristic is shared by all the searches and must be thread-safe. A listener (options.listener)
+     * is not allowed, since the listeners such as SearchStatistics describe a single search at a time.
+     *
+     * Every problem is searched with GraphSearch.searchWithLimits, so options.limits applies to each of them.
+     *
+     * @param report receives the latency of every search, can be null
+     * @return the results, one for each problem
+     */
+    public static <S, A> Stream<BatchResult<S, A>> solve(String function,
+                                                         List<? extends SearchProblem<S, A>> problems,
+                                                         SearchHeuristic<S, A> heuristic,
+                                                         SearchOptions options,
+                                                         BatchReport report) {
+        if (options.listener != null)
+            throw new IllegalArgumentException("Batch search does not support a search listener, got " + options.listener.getClass().getName());
+        ExecutorService executor = newExecutor(options.batchThreads);
+        CompletionService<BatchResult<S, A>> completion = new ExecutorCompletionService<>(executor);
+        if (report != null)
+            report.start();
+
+        try {
+            for (int i = 0; i < problems.size(); i++) {
+                int index = i;
+                SearchProblem<S, A> problem = problems.get(i);
+                long submitted = System.nanoTime();
+                completion.submit(() -> {
+                    long started = System.nanoTime();
+                    SearchResult<S, A> result = GraphSearch.searchWithLimits(function, problem, heuristic, options, false);
+                    long completed = System.nanoTime();
+                    BatchResult<S, A> batchResult = new BatchResult<>(index, problem, result,
+                            completed - submitted, completed - started);
+                    if (report != null)
+                        report.record(batchResult);
+                    return batchResult;
+                });
+            }
+        } finally {
+            // the submitted searches still run, the executor only stops accepting new ones
+            executor.shutdown();
+        }
+
+        return Stream.generate(() -> takeNext(completion)).limit(problems.size());
+    }
+
+    private static <S, A> BatchResult<S, A> takeNext(CompletionService<BatchResult<S, A>> completion) {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a batch search", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Batch search failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /**
+     * Virtual threads are only available from Java 21 (as a preview before), and this code
+     * also runs on older JVMs, so the factory method is looked up by reflection.
+     */
+    static ExecutorService newExecutor(int threads) {
+        if (threads <= 0) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+                // no virtual threads, fall back to the pool
+            }
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        return new ForkJoinPool(threads);
+    }
+}
+
+/**
+ * The outcome of one search of a batch.
+ *
+ * @param <S> class for states
+ * @param <A> class for actions
+ */
+class BatchResult<S, A> {
+    // position of the problem in the list given to BatchSearch.solve
+    public final int index;
+    public final SearchProblem<S, A> problem;
+    public final SearchResult<S, A> result;
+    // time from the submission of the batch to the end of the search, waiting for a thread included
+    public final long latencyNanos;
+    // time spent in the search itself
+    public final long searchNanos;
+
+    BatchResult(int index, SearchProblem<S, A> problem, SearchResult<S, A> result, long latencyNanos, long searchNanos) {
+        this.index = index;
+        this.problem = problem;
+        this.result = result;
+        this.latencyNanos = latencyNanos;
+        this.searchNanos = searchNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + index + ": " + result + ", expanded " + problem.getExpandedCount() +
+                (result.solution == null ? "" : ", cost " + result.solution.pathCost) +
+                String.format(", %.3fms", searchNanos / 1e6);
+    }
+}
+
+/**
+ * Aggregate figures of a batch: throughput, and percentiles of the per-search latencies.
+ * Filled in concurrently by the threads of the batch.
+ */
+class BatchReport {
+    private long startNanos;
+    private long lastCompletionNanos;
+    private final List<Long> latencies = new ArrayList<>();
+    private final List<Long> searchTimes = new ArrayList<>();
+    private final Map<SearchResult.Status, Integer> statuses = new EnumMap<>(SearchResult.Status.class);
+    private long expansions;
+
+    synchronized void start() {
+        startNanos = System.nanoTime();
+        lastCompletionNanos = startNanos;
+        latencies.clear();
+        searchTimes.clear();
+        statuses.clear();
+        expansions = 0;
+    }
+
+    synchronized void record(BatchResult<?, ?> result) {
+        lastCompletionNanos = Math.max(lastCompletionNanos, System.nanoTime());
+        latencies.add(result.latencyNanos);
+        searchTimes.add(result.searchNanos);
+        statuses.merge(result.result.status, 1, Integer::sum);
+        expansions += result.problem.getExpandedCount();
+    }
+
+    public synchronized int getCount() {
+        return latencies.size();
+    }
+
+    /**
+     * @return the number of searches completed per second, from the start of the batch to the last completion
+     */
+    public synchronized double getThroughput() {
+        long elapsed = lastCompletionNanos - startNanos;
+        return elapsed == 0 ? 0 : latencies.size() * 1e9 / elapsed;
+    }
+
+    /**
+     * @return the nearest-rank percentile of the latencies, in nanoseconds, or 0 if there are none
+     */
+    public synchronized long getLatencyPercentile(double percent) {
+        return percentile(latencies, percent);
+    }
+
+    public synchronized long getSearchTimePercentile(double percent) {
+        return percentile(searchTimes, percent);
+    }
+
+    private static long percentile(List<Long> values, double percent) {
+        if (values.isEmpty())
+            return 0;
+        long[] sorted = values.stream().mapToLong(Long::longValue).sorted().toArray();
+        int rank = (int) Math.ceil(percent / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Batch of %d searches in %.3fs: %.1f searches/s, %d expansions, %s%n",
+                latencies.size(), (lastCompletionNanos - startNanos) / 1e9, getThroughput(), expansions, statuses) +
+                formatPercentiles("latency", latencies) +
+                formatPercentiles("search time", searchTimes);
+    }
+
+    private static String formatPercentiles(String name, List<Long> values) {
+        return String.format("  %s: p50 %.3fms, p90 %.3fms, p99 %.3fms, max %.3fms%n", name,
+                percentile(values, 50) / 1e6, percentile(values, 90) / 1e6,
+                percentile(values, 99) / 1e6, percentile(values, 100) / 1e6);
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains bidirectional search strategies for problems implementing
+ * ReversibleSearchProblem, called by GraphSearch.search.
+ *
+ * A forward search from the start state and a backward search from the goal states
+ * run in turns until they meet. The solution is the forward path to the meeting state
+ * followed by the backward path from it.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.*;
+
+class BidirectionalSearch {
+
+    /**
+     * Bidirectional breadth-first search. Expands whole layers, each time on the side
+     * with the smaller frontier. After a layer in which the two searches meet, the shortest
+     * of the paths through the meeting states has the fewest actions.
+     */
+    static <S, A> Solution<S, A> breadthFirstSearch(SearchProblem<S, A> problem) {
+        ReversibleSearchProblem<S, A> reversible = asReversible(problem);
+
+        Map<S, Node<S, A>> forwardReached = new HashMap<>();
+        Map<S, Node<S, A>> backwardReached = new HashMap<>();
+        List<Node<S, A>> forwardLayer = new ArrayList<>();
+        List<Node<S, A>> backwardLayer = new ArrayList<>();
+
+        Node<S, A> startNode = new Node<>(problem.getStartState(), null, null, 0);
+        forwardReached.put(startNode.state, startNode);
+        forwardLayer.add(startNode);
+        for (S goalState : reversible.getGoalStates()) {
+            Node<S, A> goalNode = new Node<>(goalState, null, null, 0);
+            backwardReached.put(goalState, goalNode);
+            backwardLayer.add(goalNode);
+        }
+
+        Meeting<S, A> meeting = new Meeting<>();
+        // the start state may already be a goal state
+        meeting.check(startNode, backwardReached);
+
+        while (meeting.forward == null && !forwardLayer.isEmpty() && !backwardLayer.isEmpty()) {
+            boolean forward = forwardLayer.size() <= backwardLayer.size();
+            List<Node<S, A>> layer = forward ? forwardLayer : backwardLayer;
+            Map<S, Node<S, A>> reached = forward ? forwardReached : backwardReached;
+            Map<S, Node<S, A>> otherReached = forward ? backwardReached : forwardReached;
+
+            List<Node<S, A>> nextLayer = new ArrayList<>();
+            for (Node<S, A> node : layer) {
+                problem.doFrontierBookKeeping(layer.size());
+                for (SuccessorInfo<S, A> successor : expand(problem, reversible, node.state, forward)) {
+                    if (reached.containsKey(successor.nextState))
+                        continue;
+
+                    Node<S, A> child = new Node<>(successor.nextState, node, successor.action,
+                            node.pathCost + successor.cost);
+                    reached.put(child.state, child);
+                    nextLayer.add(child);
+                    if (forward)
+                        meeting.checkByLength(child, otherReached);
+                    else
+                        meeting.checkByLength(otherReached.get(child.state), child);
+                }
+            }
+
+            if (forward)
+                forwardLayer = nextLayer;
+            else
+                backwardLayer = nextLayer;
+        }
+
+        return meeting.toSolution();
+    }
+
+    /**
+     * Bidirectional uniform-cost search (bidirectional Dijkstra) and, when a heuristic is given,
+     * bidirectional A* in the style of MM (Holte et al., 2016): a node is prioritised by
+     * max(g + h, 2g), where the backward direction evaluates the heuristic on the reversed problem.
+     * The side with the smaller top priority is expanded.
+     *
+     * Without a heuristic, search stops once the cheapest meeting found costs no more than the sum
+     * of the smallest path costs of the two frontiers. With a heuristic, it stops once it costs no more
+     * than the smallest priority of the two frontiers. In both cases the solution is optimal
+     * (with an admissible heuristic).
+     */
+    static <S, A> Solution<S, A> bestFirstSearch(SearchProblem<S, A> problem, SearchHeuristic<S, A> heuristic) {
+        ReversibleSearchProblem<S, A> reversible = asReversible(problem);
+        SearchProblem<S, A> reversed = heuristic == null ? null : reversible.getReversedProblem();
+
+        Comparator<Node<S, A>> byPriority = Comparator.comparingDouble(node -> priority(node, heuristic));
+        Util.IndexedPriorityQueue<S, Node<S, A>> forwardFrontier = new Util.IndexedPriorityQueue<>(node -> node.state, byPriority);
+        Util.IndexedPriorityQueue<S, Node<S, A>> backwardFrontier = new Util.IndexedPriorityQueue<>(node -> node.state, byPriority);
+        // the cheapest node found so far for every reached state
+        Map<S, Node<S, A>> forwardReached = new HashMap<>();
+        Map<S, Node<S, A>> backwardReached = new HashMap<>();
+
+        S startState = problem.getStartState();
+        Node<S, A> startNode = new Node<>(startState, null, null, 0,
+                heuristic == null ? 0 : problem.evaluateHeuristic(heuristic, startState));
+        forwardReached.put(startState, startNode);
+        forwardFrontier.push(startNode);
+        for (S goalState : reversible.getGoalStates()) {
+            Node<S, A> goalNode = new Node<>(goalState, null, null, 0,
+                    heuristic == null ? 0 : backwardHeuristic(problem, heuristic, reversed, goalState));
+            backwardReached.put(goalState, goalNode);
+            backwardFrontier.push(goalNode);
+        }
+
+        Meeting<S, A> meeting = new Meeting<>();
+        meeting.check(startNode, backwardReached);
+
+        while (!forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+            Node<S, A> forwardTop = forwardFrontier.peek();
+            Node<S, A> backwardTop = backwardFrontier.peek();
+            double forwardPriority = priority(forwardTop, heuristic);
+            double backwardPriority = priority(backwardTop, heuristic);
+
+            double lowerBound = heuristic == null ?
+                    forwardTop.pathCost + backwardTop.pathCost :
+                    Math.min(forwardPriority, backwardPriority);
+            if (meeting.cost() <= lowerBound)
+                break;
+
+            boolean forward = forwardPriority <= backwardPriority;
+            Util.IndexedPriorityQueue<S, Node<S, A>> frontier = forward ? forwardFrontier : backwardFrontier;
+            Map<S, Node<S, A>> reached = forward ? forwardReached : backwardReached;
+            Map<S, Node<S, A>> otherReached = forward ? backwardReached : forwardReached;
+
+            problem.doFrontierBookKeeping(frontier.size());
+            Node<S, A> node = frontier.pop();
+            if (forward)
+                problem.offerNode(node);
+
+            for (SuccessorInfo<S, A> successor : expand(problem, reversible, node.state, forward)) {
+                double childPathCost = node.pathCost + successor.cost;
+                Node<S, A> previous = reached.get(successor.nextState);
+                if (previous != null && previous.pathCost <= childPathCost)
+                    continue;
+
+                double childHeuristic = heuristic == null ? 0 : previous != null ? previous.heuristicValue :
+                        forward ? problem.evaluateHeuristic(heuristic, successor.nextState) :
+                                backwardHeuristic(problem, heuristic, reversed, successor.nextState);
+                Node<S, A> child = new Node<>(successor.nextState, node, successor.action, childPathCost, childHeuristic);
+                reached.put(child.state, child);
+                frontier.push(child);
+
+                if (forward)
+                    meeting.check(child, otherReached);
+                else
+                    meeting.check(otherReached.get(child.state), child);
+            }
+        }
+
+        return meeting.toSolution();
+    }
+
+    private static <S, A> ReversibleSearchProblem<S, A> asReversible(SearchProblem<S, A> problem) {
+        if (!(problem instanceof ReversibleSearchProblem))
+            throw new RuntimeException("Bidirectional search requires a ReversibleSearchProblem, got " +
+                    problem.getClass().getName());
+        @SuppressWarnings("unchecked")
+        ReversibleSearchProblem<S, A> reversible = (ReversibleSearchProblem<S, A>) problem;
+        return reversible;
+    }
+
+    /**
+     * Successors of state in the forward direction, predecessors in the backward one.
+     */
+    private static <S, A> Collection<SuccessorInfo<S, A>> expand(SearchProblem<S, A> problem,
+                                                                ReversibleSearchProblem<S, A> reversible,
+                                                                S state,
+                                                                boolean forward) {
+        if (forward)
+            return problem.expand(state);
+
+        Collection<SuccessorInfo<S, A>> predecessors = reversible.getPredecessors(state);
+        problem.doBookKeeping(state);
+        return predecessors;
+    }
+
+    /**
+     * The heuristic estimate of the cost from the start state to state, if there is a reversed problem.
+     */
+    private static <S, A> double backwardHeuristic(SearchProblem<S, A> problem,
+                                                   SearchHeuristic<S, A> heuristic,
+                                                   SearchProblem<S, A> reversed,
+                                                   S state) {
+        if (reversed == null)
+            return 0;
+        problem.heuristicEvaluationCount++;
+        return heuristic.value(state, reversed);
+    }
+
+    private static <S, A> double priority(Node<S, A> node, SearchHeuristic<S, A> heuristic) {
+        if (heuristic == null)
+            return node.pathCost;
+        return Math.max(node.pathCost + node.heuristicValue, 2 * node.pathCost);
+    }
+
+    /**
+     * The best pair of a forward node and a backward node with the same state found so far.
+     */
+    private static class Meeting<S, A> {
+        Node<S, A> forward;
+        Node<S, A> backward;
+
+        double cost() {
+            return forward == null ? Double.POSITIVE_INFINITY : forward.pathCost + backward.pathCost;
+        }
+
+        void check(Node<S, A> forwardNode, Map<S, Node<S, A>> backwardReached) {
+            check(forwardNode, backwardReached.get(forwardNode.state));
+        }
+
+        void check(Node<S, A> forwardNode, Node<S, A> backwardNode) {
+            if (forwardNode == null || backwardNode == null)
+                return;
+            if (forwardNode.pathCost + backwardNode.pathCost < cost()) {
+                forward = forwardNode;
+                backward = backwardNode;
+            }
+        }
+
+        /**
+         * Same as check, but compares the paths by their number of actions.
+         */
+        void checkByLength(Node<S, A> forwardNode, Map<S, Node<S, A>> backwardReached) {
+            checkByLength(forwardNode, backwardReached.get(forwardNode.state));
+        }
+
+        void checkByLength(Node<S, A> forwardNode, Node<S, A> backwardNode) {
+            if (forwardNode == null || backwardNode == null)
+                return;
+            if (forward == null || depth(forwardNode) + depth(backwardNode) < depth(forward) + depth(backward)) {
+                forward = forwardNode;
+                backward = backwardNode;
+            }
+        }
+
+        private static int depth(Node<?, ?> node) {
+            int depth = 0;
+            for (; node.parent != null; node = node.parent)
+                depth++;
+            return depth;
+        }
+
+        /**
+         * Splices the forward path to the meeting state with the backward path from it.
+         * In the backward search tree the action of a node leads from its state to the state of
+         * its parent, so the actions after the meeting state are read by following the parents.
+         */
+        Solution<S, A> toSolution() {
+            if (forward == null)
+                return null;
+
+            List<A> actions = forward.getActions();
+            Node<S, A> node = backward;
+            for (; node.parent != null; node = node.parent) {
+                actions.add(node.action);
+            }
+            return new Solution<>(node.state, actions, forward.pathCost + backward.pathCost);
+        }
+    }
+}
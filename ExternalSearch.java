@@ -0,0 +1,412 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains an external-memory breadth-first search, which keeps the layers
+ * of the search on disk instead of the heap, called by GraphSearch.search.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static java.lang.System.out;
+
+class ExternalSearch<S, A> {
+
+    /**
+     * Breadth-first search with delayed duplicate detection (Korf, 2003).
+     *
+     * Every layer of the search is a file of the sorted keys of its states, as given by the StateCodec
+     * of the problem, written and read through memory-mapped windows. To build the next layer, the states
+     * of the current one are expanded and the keys of their successors are buffered in memory; each time
+     * the buffer is full it is sorted and written as a run. The runs are then merged, dropping duplicates
+     * and the states of the previous layers. For a ReversibleSearchProblem, whose actions can be undone,
+     * a successor can only be in the previous layer or the current one, so only these two are merged;
+     * otherwise all the previous layers are.
+     *
+     * When a goal state is generated, the path is rebuilt backwards, layer by layer: for a ReversibleSearchProblem
+     * by looking up the predecessors of the state in the sorted layer file, otherwise by scanning the layer
+     * for a state that has it as a successor.
+     *
+     * @param runLength number of keys buffered in memory before a sorted run is written
+     * @param directory directory for the layer files, the default temporary directory if null
+     */
+    static <S, A> Solution<S, A> breadthFirstSearch(SearchProblem<S, A> problem,
+                                                    int runLength,
+                                                    String directory,
+                                                    boolean print) {
+        StateCodec<S> codec = problem.getStateCodec();
+        if (codec == null)
+            throw new RuntimeException("External search requires a StateCodec, got none for " +
+                    problem.getClass().getName());
+        if (runLength < 1)
+            throw new IllegalArgumentException("Expecting a positive run length, got " + runLength);
+
+        ExternalSearch<S, A> search = null;
+        try {
+            Path workDirectory = directory == null ?
+                    Files.createTempDirectory("extbfs") :
+                    Files.createTempDirectory(Paths.get(directory), "extbfs");
+            search = new ExternalSearch<>(problem, codec, runLength, workDirectory, print);
+            return search.search();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (search != null)
+                search.deleteFiles();
+        }
+    }
+
+    // size of the memory-mapped windows, in bytes
+    private static final int WINDOW_SIZE = 1 << 23;
+
+    private final SearchProblem<S, A> problem;
+    private final StateCodec<S> codec;
+    private final boolean reversible;
+    private final Path directory;
+    private final boolean print;
+
+    private final long[] buffer;
+    private int buffered = 0;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Path> layers = new ArrayList<>();
+
+    // statistics of the current layer
+    private long bytesRead = 0;
+    private long bytesWritten = 0;
+
+    private ExternalSearch(SearchProblem<S, A> problem, StateCodec<S> codec, int runLength,
+                           Path directory, boolean print) {
+        this.problem = problem;
+        this.codec = codec;
+        this.reversible = problem instanceof ReversibleSearchProblem;
+        this.directory = directory;
+        this.print = print;
+        this.buffer = new long[runLength];
+    }
+
+    private Solution<S, A> search() throws IOException {
+        S startState = problem.getStartState();
+        if (problem.isGoalState(startState))
+            return new Solution<>(startState, new ArrayList<>(), 0);
+
+        Path firstLayer = directory.resolve("layer-0");
+        try (LongFileWriter writer = new LongFileWriter(firstLayer)) {
+            writer.write(codec.encode(startState));
+        }
+        layers.add(firstLayer);
+
+        for (int depth = 0; ; depth++) {
+            bytesRead = 0;
+            bytesWritten = 0;
+
+            S goalState = expandLayer(layers.get(depth));
+            if (goalState != null) {
+                printLayer(depth + 1, -1);
+                return rebuildSolution(goalState);
+            }
+            flushRun();
+
+            Path nextLayer = directory.resolve("layer-" + (depth + 1));
+            List<Path> previousLayers = reversible ?
+                    layers.subList(Math.max(0, depth - 1), depth + 1) : layers;
+            long count = mergeRuns(nextLayer, previousLayers);
+            printLayer(depth + 1, count);
+
+            if (count == 0) {
+                // The whole state space has been searched. Return null.
+                Files.delete(nextLayer);
+                return null;
+            }
+            layers.add(nextLayer);
+            problem.doFrontierBookKeeping((int) Math.min(count, Integer.MAX_VALUE));
+        }
+    }
+
+    private void printLayer(int depth, long count) {
+        if (print)
+            out.println("Layer " + depth + ": " + (count < 0 ? "goal found" : count + " states") +
+                    ", bytes read " + bytesRead + ", bytes written " + bytesWritten);
+    }
+
+    /**
+     * Expands all the states of the layer, writing the keys of their successors as sorted runs.
+     * @return a goal state if one is generated, null otherwise
+     */
+    private S expandLayer(Path layer) throws IOException {
+        try (LongFileReader reader = new LongFileReader(layer)) {
+            while (reader.advance()) {
+                S state = codec.decode(reader.current);
+                problem.countExpansion();
+                for (SuccessorInfo<S, A> successor : problem.getSuccessors(state)) {
+                    if (problem.isGoalState(successor.nextState))
+                        return successor.nextState;
+                    if (buffered == buffer.length)
+                        flushRun();
+                    buffer[buffered++] = codec.encode(successor.nextState);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void flushRun() throws IOException {
+        if (buffered == 0)
+            return;
+
+        Arrays.sort(buffer, 0, buffered);
+        Path run = directory.resolve("run-" + runs.size());
+        try (LongFileWriter writer = new LongFileWriter(run)) {
+            for (int i = 0; i < buffered; i++) {
+                if (i == 0 || buffer[i] != buffer[i - 1])
+                    writer.write(buffer[i]);
+            }
+        }
+        runs.add(run);
+        buffered = 0;
+    }
+
+    /**
+     * Merges the sorted runs into the layer file, keeping each key once
+     * and dropping the keys found in the previous layers. The runs are deleted.
+     * @return the number of keys in the layer
+     */
+    private long mergeRuns(Path layer, List<Path> previousLayers) throws IOException {
+        List<LongFileReader> readers = new ArrayList<>();
+        try (LongFileWriter writer = new LongFileWriter(layer)) {
+            java.util.PriorityQueue<LongFileReader> heads =
+                    new java.util.PriorityQueue<>(Comparator.comparingLong(reader -> reader.current));
+            for (Path run : runs) {
+                LongFileReader reader = new LongFileReader(run);
+                readers.add(reader);
+                if (reader.advance())
+                    heads.add(reader);
+            }
+            List<LongFileReader> previous = new ArrayList<>();
+            for (Path previousLayer : previousLayers) {
+                LongFileReader reader = new LongFileReader(previousLayer);
+                readers.add(reader);
+                if (reader.advance())
+                    previous.add(reader);
+            }
+
+            long count = 0;
+            boolean first = true;
+            long last = 0;
+            while (!heads.isEmpty()) {
+                LongFileReader head = heads.poll();
+                long key = head.current;
+                if (head.advance())
+                    heads.add(head);
+
+                if (!first && key == last)
+                    continue;
+                first = false;
+                last = key;
+
+                if (!isInPreviousLayers(previous, key)) {
+                    writer.write(key);
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            for (LongFileReader reader : readers)
+                reader.close();
+            for (Path run : runs)
+                Files.delete(run);
+            runs.clear();
+        }
+    }
+
+    /**
+     * The keys are looked up in increasing order, so each previous layer is read only once.
+     */
+    private boolean isInPreviousLayers(List<LongFileReader> previous, long key) throws IOException {
+        for (Iterator<LongFileReader> iterator = previous.iterator(); iterator.hasNext(); ) {
+            LongFileReader reader = iterator.next();
+            boolean more = true;
+            while (reader.current < key && (more = reader.advance()))
+                ;
+            if (!more) {
+                iterator.remove();
+                continue;
+            }
+            if (reader.current == key)
+                return true;
+        }
+        return false;
+    }
+
+    private Solution<S, A> rebuildSolution(S goalState) throws IOException {
+        List<A> actions = new ArrayList<>();
+        double pathCost = 0;
+        S state = goalState;
+        for (int depth = layers.size() - 1; depth >= 0; depth--) {
+            SuccessorInfo<S, A> step = reversible ?
+                    findPredecessor(layers.get(depth), state) :
+                    scanForPredecessor(layers.get(depth), state);
+            if (step == null)
+                throw new RuntimeException("No predecessor of " + state + " in layer " + depth);
+            actions.add(step.action);
+            pathCost += step.cost;
+            state = step.nextState;
+        }
+        Collections.reverse(actions);
+        if (print)
+            out.println("Path rebuilt, bytes read " + bytesRead);
+        return new Solution<>(goalState, actions, pathCost);
+    }
+
+    /**
+     * @return the predecessor of state that is in the layer, with the action leading from it to state
+     */
+    private SuccessorInfo<S, A> findPredecessor(Path layer, S state) throws IOException {
+        @SuppressWarnings("unchecked")
+        ReversibleSearchProblem<S, A> reversibleProblem = (ReversibleSearchProblem<S, A>) problem;
+        try (FileChannel channel = FileChannel.open(layer, StandardOpenOption.READ)) {
+            for (SuccessorInfo<S, A> predecessor : reversibleProblem.getPredecessors(state)) {
+                if (containsSorted(channel, codec.encode(predecessor.nextState)))
+                    return predecessor;
+            }
+        }
+        return null;
+    }
+
+    private boolean containsSorted(FileChannel channel, long key) throws IOException {
+        ByteBuffer value = ByteBuffer.allocate(Long.BYTES);
+        long low = 0, high = channel.size() / Long.BYTES - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            value.clear();
+            channel.read(value, middle * Long.BYTES);
+            bytesRead += Long.BYTES;
+            long middleKey = value.getLong(0);
+            if (middleKey < key)
+                low = middle + 1;
+            else if (middleKey > key)
+                high = middle - 1;
+            else
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return a state of the layer that has state as a successor, with the action leading from it to state
+     */
+    private SuccessorInfo<S, A> scanForPredecessor(Path layer, S state) throws IOException {
+        try (LongFileReader reader = new LongFileReader(layer)) {
+            while (reader.advance()) {
+                S candidate = codec.decode(reader.current);
+                for (SuccessorInfo<S, A> successor : problem.getSuccessors(candidate)) {
+                    if (successor.nextState.equals(state))
+                        return new SuccessorInfo<>(candidate, successor.action, successor.cost);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void deleteFiles() {
+        try {
+            for (Path path : runs)
+                Files.deleteIfExists(path);
+            for (Path path : layers)
+                Files.deleteIfExists(path);
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes longs to a file through memory-mapped windows, growing the file as needed.
+     */
+    private class LongFileWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private MappedByteBuffer window = null;
+        private long windowStart = 0;
+        private long count = 0;
+
+        LongFileWriter(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        void write(long value) throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                if (window != null)
+                    windowStart += WINDOW_SIZE;
+                window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW_SIZE);
+            }
+            window.putLong(value);
+            count++;
+            bytesWritten += Long.BYTES;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            // the last window was mapped in full
+            channel.truncate(count * Long.BYTES);
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the longs of a file through memory-mapped windows.
+     */
+    private class LongFileReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window = null;
+        private long windowEnd = 0;
+        long current;
+
+        LongFileReader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            size = channel.size();
+        }
+
+        /**
+         * Moves to the next value of the file.
+         * @return false if there is none
+         */
+        boolean advance() throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                if (windowEnd >= size)
+                    return false;
+                long length = Math.min(WINDOW_SIZE, size - windowEnd);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowEnd, length);
+                windowEnd += length;
+            }
+            current = window.getLong();
+            bytesRead += Long.BYTES;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the Java Flight Recorder events emitted by the search and the game loop.
+ * They are only recorded when the JVM is started with a recording, for instance
+ *
+ *   java -XX:StartFlightRecording=filename=game.jfr -cp out PacmanMain -l mediumClassic -a PacmanSearchAgent
+ *
+ * and can then be summarised with JfrSummaryMain, or opened in JDK Mission Control next to the
+ * garbage collection and other JVM events. Without a recording, or when an event is disabled in
+ * the recording settings, emitting it costs next to nothing: the fields are only filled in
+ * when shouldCommit returns true.
+ *
+ * You should not need to modify this file.
+ */
+
+import jdk.jfr.*;
+
+/**
+ * One call of GraphSearch.search or GraphSearch.searchWithLimits.
+ * Searches shorter than the threshold are not recorded.
+ */
+@Name("pacman.Search")
+@Label("Search")
+@Category({"Pacman", "Search"})
+@Description("A search for a solution of a search problem")
+@StackTrace(false)
+@Threshold("1 ms")
+class SearchEvent extends Event {
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Problem Class")
+    String problemClass;
+
+    @Label("Expansions")
+    long expansions;
+
+    @Label("Outcome")
+    @Description("solved, exhausted, aborted, or cached if the solution has been found in the cache")
+    String outcome;
+
+    @Label("Solution Cost")
+    double solutionCost;
+}
+
+/**
+ * One tick of GameManager: the moves of pacman and the ghosts, and the repaint request.
+ * The sleep between two ticks is not part of the event.
+ */
+@Name("pacman.GameTick")
+@Label("Game Tick")
+@Category({"Pacman", "Game"})
+@Description("The work done by the game loop for one tick")
+@StackTrace(false)
+@Threshold("0 ms")
+class GameTickEvent extends Event {
+    @Label("Tick")
+    long tick;
+
+    @Label("Pacman Agent Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long pacmanAgentTime;
+
+    @Label("Ghost Agents Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long ghostAgentsTime;
+
+    @Label("Repaint Request Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long repaintTime;
+}
+
+/**
+ * One move of BlinkyGhostAgent towards pacman, chosen by its planner.
+ */
+@Name("pacman.GhostReplan")
+@Label("Ghost Replan")
+@Category({"Pacman", "Game"})
+@Description("A search of Blinky for its next move towards pacman")
+@StackTrace(false)
+@Threshold("0 ms")
+class GhostReplanEvent extends Event {
+    @Label("Planner")
+    String planner;
+
+    @Label("Outcome")
+    @Description("move if a move towards pacman has been found, none otherwise")
+    String outcome;
+
+    @Label("Expansions")
+    long expansions;
+}
@@ -0,0 +1,146 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the flow field shared by the ghosts chasing pacman, and the planner that uses it.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The maze distance from every cell to a target, usually pacman, computed with one breadth-first search
+ * backwards from the target. The field is only computed again when the target moves, so within a tick
+ * all the ghosts read the same field, and each of them finds its move in constant time by going
+ * down the field. The cost of the ghosts is then one search per tick, whatever their number.
+ *
+ * Moves are symmetric in the maze, so the distance from the target to a cell is also the distance
+ * from that cell to the target.
+ */
+class FlowField {
+    // distance of the cells that cannot reach the target, and of the walls
+    public static final int UNREACHABLE = MazeGraph.UNREACHED;
+
+    // the field of each maze, shared by all its ghosts; the mazes are compared by identity
+    private static final Map<Maze, FlowField> FIELDS = new WeakHashMap<>();
+
+    private final MazeGraph graph;
+    // reused by every computation
+    private final int[] distances;
+    private final int[] queue;
+
+    private int target = -1;
+    private long computeCount = 0;
+
+    public FlowField(Maze maze) {
+        this.graph = MazeGraph.forMaze(maze);
+        this.distances = new int[graph.size()];
+        this.queue = new int[graph.size()];
+    }
+
+    /**
+     * @return the field shared by the ghosts of the maze
+     */
+    public static FlowField forMaze(Maze maze) {
+        synchronized (FIELDS) {
+            return FIELDS.computeIfAbsent(maze, FlowField::new);
+        }
+    }
+
+    /**
+     * Computes the field again if the target has moved since the last call.
+     *
+     * @return the number of cells expanded, 0 if the field was up to date
+     */
+    public synchronized long update(Coordinate targetLocation) {
+        int newTarget = cell(targetLocation);
+        if (newTarget == target)
+            return 0;
+        target = newTarget;
+
+        long expanded = graph.breadthFirstSearch(target, distances, queue);
+        computeCount++;
+        return expanded;
+    }
+
+    /**
+     * @return the move from location down the field, that is the first move of a shortest path to the target,
+     * or null if the target cannot be reached or is already there
+     */
+    public synchronized PacmanAction nextMove(Coordinate location) {
+        int cell = cell(location);
+        int distance = distances[cell];
+        if (target == -1 || distance == UNREACHABLE || distance == 0)
+            return null;
+        for (int m = 0; m < MazeGraph.MOVES.length; m++) {
+            int next = graph.neighbour(cell, m);
+            if (next != -1 && distances[next] == distance - 1)
+                return MazeGraph.MOVES[m];
+        }
+        throw new RuntimeException("Inconsistent flow field at " + location);
+    }
+
+    /**
+     * @return the distance from location to the target, or UNREACHABLE
+     */
+    public synchronized int distance(Coordinate location) {
+        return target == -1 ? UNREACHABLE : distances[cell(location)];
+    }
+
+    /**
+     * @return the number of times the field has been computed
+     */
+    public synchronized long getComputeCount() {
+        return computeCount;
+    }
+
+    private int cell(Coordinate c) {
+        if (c.x < 0 || c.y < 0 || c.x >= graph.width || c.y >= graph.height)
+            throw new IllegalArgumentException("Location " + c + " is outside of the maze");
+        return c.y * graph.width + c.x;
+    }
+}
+
+/**
+ * Reads the move of the ghost from the flow field of the maze, which is shared by all the ghosts.
+ * The first ghost to move after pacman has moved computes the field again.
+ */
+class FlowFieldPlanner implements GhostPlanner {
+    private final FlowField field;
+    private long lastExpandedCount = 0;
+
+    public FlowFieldPlanner(Maze maze) {
+        this.field = FlowField.forMaze(maze);
+    }
+
+    @Override
+    public PacmanAction nextMove(Coordinate ghost, Coordinate target) {
+        // the field must not move to another target between the two calls
+        synchronized (field) {
+            lastExpandedCount = field.update(target);
+            return field.nextMove(ghost);
+        }
+    }
+
+    /**
+     * @return the number of cells expanded to compute the field again, 0 if another ghost already has
+     */
+    @Override
+    public long getLastExpandedCount() {
+        return lastExpandedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "flow";
+    }
+}
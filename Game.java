@@ -18,7 +18,8 @@ public class Game {
 
     private List<Ghost> ghosts;
     private Pacman pacman;
-    private List<SearchState> visitedList;
+    // set by the searches, which can run in a background thread, and read by the GUI
+    private volatile List<SearchState> visitedList;
 
     public Game(Maze maze, Pacman pacman, List<Ghost> ghosts) {
         score = 0;
@@ -163,6 +164,7 @@ public class Game {
     /**
      * A hack to draw the heatmap of the expanded states.
      * We simply store it in the game object to be accessible by PacmanMazePanel.
+     * The list must not be modified afterwards, since the GUI reads it from another thread.
      */
     public void setVisitedList(List<SearchState> visitedList) {
         this.visitedList = visitedList;
@@ -182,6 +184,8 @@ class GameManager extends Thread {
     boolean alive;
 
     int tickDuration = 200;
+    // number of ticks so far, recorded in GameTickEvent
+    long tick = 0;
 
     public GameManager(Game game, PacmanMazePanel mazePanel, PacmanAgent pacmanAgent, List<GhostAgent> ghostAgents) {
         this.game = game;
@@ -208,13 +212,29 @@ class GameManager extends Thread {
                 e.printStackTrace();
             }
 
+            GameTickEvent event = new GameTickEvent();
+            event.begin();
+            long tickStart = System.nanoTime();
+
             pacmanAgent.doTick();
+            long pacmanEnd = System.nanoTime();
             for (GhostAgent ghostAgent : ghostAgents) {
                 ghostAgent.doTick();
             }
+            long ghostsEnd = System.nanoTime();
 
             gamePanel.repaint();
 
+            event.end();
+            if (event.shouldCommit()) {
+                event.tick = tick;
+                event.pacmanAgentTime = pacmanEnd - tickStart;
+                event.ghostAgentsTime = ghostsEnd - pacmanEnd;
+                event.repaintTime = System.nanoTime() - ghostsEnd;
+                event.commit();
+            }
+            tick++;
+
             if (game.checkGameIsOver()) {
                 alive = false;
             }
@@ -72,34 +72,43 @@ class RandomGhostAgent extends GhostAgent {
 class BlinkyGhostAgent extends RandomGhostAgent {
     Pacman pacman;
 
+    /*
+     * Chooses the moves towards pacman; each ghost has its own, since planners may keep state between moves
+     */
+    GhostPlanner planner;
 
     public BlinkyGhostAgent(Game game, Ghost ghost, Pacman pacman) {
+        this(game, ghost, pacman, "astar");
+    }
+
+    /**
+     * @param plannerName the name of the planner, see GhostPlanner.create
+     */
+    public BlinkyGhostAgent(Game game, Ghost ghost, Pacman pacman, String plannerName) {
         super(game, ghost);
         
         this.pacman = pacman;
+        this.planner = GhostPlanner.create(plannerName, game.maze);
     }
 
     @Override
     public PacmanAction getNextMove() {
-        List<PacmanAction> actions;
-        int performedActionCount;
-        boolean searched = false;
-
-        SearchProblem<SearchState, PacmanAction> searchProblem = (SearchProblem)new PacmanPositionSearchProblem(game.maze, pacman.getLocation(),ghost.getLocation());
-
-        SearchHeuristic<SearchState, PacmanAction> heuristic =
-                    (SearchHeuristic) new ManhattanDistanceHeuristic();
-
-        Solution<SearchState, PacmanAction> solution = GraphSearch.search("astar", searchProblem, heuristic, true);
-        
-
-        actions = solution.actions;
-        performedActionCount = 0;
+        GhostReplanEvent event = new GhostReplanEvent();
+        event.begin();
+        PacmanAction move = planner.nextMove(ghost.getLocation(), pacman.getLocation());
+        event.end();
+        if (event.shouldCommit()) {
+            event.planner = planner.toString();
+            event.outcome = move == null ? "none" : "move";
+            event.expansions = planner.getLastExpandedCount();
+            event.commit();
+        }
 
-        searched = true;
+        game.setVisitedList(planner.getVisitedList());
 
-        game.setVisitedList(searchProblem.getVisitedList());
-        return actions.get(0);
-    
+        // Pacman cannot be reached, or the search has not gone anywhere: move randomly
+        if (move == null)
+            return super.getNextMove();
+        return move;
     }
 }
@@ -0,0 +1,149 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the planners that chasing ghosts (see BlinkyGhostAgent) use to choose their moves.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.List;
+
+/**
+ * Chooses the next move of a ghost towards a target, usually pacman. A planner may keep state
+ * from one move to the next, so every ghost has its own.
+ */
+interface GhostPlanner {
+    /**
+     * @return the first move of a path from ghost to target, or null if there is none
+     * or the ghost is already there
+     */
+    PacmanAction nextMove(Coordinate ghost, Coordinate target);
+
+    /**
+     * @return the number of states expanded by the last call of nextMove
+     */
+    long getLastExpandedCount();
+
+    /**
+     * @return the states visited by the last call of nextMove, shown in the GUI, or null
+     */
+    default List<SearchState> getVisitedList() {
+        return null;
+    }
+
+    /**
+     * @param name astar, dstar, table or flow
+     */
+    static GhostPlanner create(String name, Maze maze) {
+        switch (name) {
+            case "astar":
+                return new SearchGhostPlanner(maze);
+            case "dstar":
+                return new IncrementalPlanner(maze);
+            case "table":
+                return new DistanceTablePlanner(maze);
+            case "flow":
+                return new FlowFieldPlanner(maze);
+            default:
+                throw new IllegalArgumentException("Unknown ghost planner " + name + ", expecting astar, dstar, table or flow");
+        }
+    }
+}
+
+/**
+ * Searches the whole path from scratch with A* at every move. The search runs on the game thread,
+ * so its effort is bounded, and the paths are cached (see SolutionCache).
+ */
+class SearchGhostPlanner implements GhostPlanner {
+    /*
+     * The paths towards pacman, shared by all the games: the same queries come back
+     * whenever neither pacman nor the ghost has moved, and from one game to the next on the same layout
+     */
+    static final SolutionCache PATH_CACHE = new SolutionCache(10000);
+    // the effort of a search, which runs on the game thread at every move of every ghost
+    static final long TIME_LIMIT_MILLIS = 10;
+    static final long MAX_EXPANSIONS = 10000;
+
+    private final Maze maze;
+    private final SearchOptions searchOptions = new SearchOptions();
+    private SearchProblem<SearchState, PacmanAction> lastProblem = null;
+
+    public SearchGhostPlanner(Maze maze) {
+        this.maze = maze;
+
+        searchOptions.limits = new SearchLimits();
+        searchOptions.limits.timeLimitMillis = TIME_LIMIT_MILLIS;
+        searchOptions.limits.maxExpansions = MAX_EXPANSIONS;
+        searchOptions.cache = PATH_CACHE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PacmanAction nextMove(Coordinate ghost, Coordinate target) {
+        SearchProblem<SearchState, PacmanAction> searchProblem =
+                (SearchProblem) new PacmanPositionSearchProblem(maze, target, ghost);
+        // the GUI shows the expanded states
+        searchProblem.setRecordVisited(true);
+
+        SearchHeuristic<SearchState, PacmanAction> heuristic =
+                (SearchHeuristic) new ManhattanDistanceHeuristic();
+
+        SearchResult<SearchState, PacmanAction> result =
+                GraphSearch.searchWithLimits("astar", searchProblem, heuristic, searchOptions, true);
+        lastProblem = searchProblem;
+
+        // the path towards the most promising node if the search has been aborted
+        List<PacmanAction> actions = result.getActions();
+        return actions.isEmpty() ? null : actions.get(0);
+    }
+
+    @Override
+    public long getLastExpandedCount() {
+        return lastProblem == null ? 0 : lastProblem.getExpandedCount();
+    }
+
+    @Override
+    public List<SearchState> getVisitedList() {
+        return lastProblem == null ? null : lastProblem.getVisitedList();
+    }
+
+    @Override
+    public String toString() {
+        return "astar";
+    }
+}
+
+/**
+ * Reads the move from the distance table of the maze (see MazeDistanceTable), without searching.
+ * The table is shared by all the ghosts, and computed when the first planner is created.
+ */
+class DistanceTablePlanner implements GhostPlanner {
+    private final MazeDistanceTable table;
+
+    public DistanceTablePlanner(Maze maze) {
+        this.table = MazeDistanceTable.forMaze(maze);
+    }
+
+    @Override
+    public PacmanAction nextMove(Coordinate ghost, Coordinate target) {
+        return table.nextMove(ghost, target);
+    }
+
+    @Override
+    public long getLastExpandedCount() {
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "table";
+    }
+}
@@ -26,19 +26,129 @@ import java.util.*;
 import static java.lang.System.out;
 
 public class GraphSearch<S,A> {
+    /**
+     * Same as the method below, with the default search options.
+     */
+    public static <S, A> Solution<S, A> search(String function,
+                                               SearchProblem<S, A> problem,
+                                               SearchHeuristic<S, A> heuristic,
+                                               boolean print) {
+        return search(function, problem, heuristic, new SearchOptions(), print);
+    }
+
     /**
      *
-     * @param function string describing search strategy: dfs, bfs, greedy and astar
+     * @param function string describing search strategy: dfs, bfs, ucs, greedy, astar, idastar, hda*, arastar, smastar, beam, extbfs,
+     *                 for problems implementing ReversibleSearchProblem bibfs, biucs and biastar,
+     *                 and for PacmanPositionSearchProblem jps and hpa
      * @param problem search problem instance, for instance, PacmanPositionSearchProblem, PacmanCornersProblem etc
      * @param heuristic can be null, not used for dfs and bfs
+     * @param options parameters of the strategies, for instance, the number of threads for hda*
      * @param <S> states
      * @param <A> actions
-     * @return
+     * @return the solution, or null if there is none
+     * @throws SearchAbortedException if options.limits is set and the search exceeds them
      */
     public static <S, A> Solution<S, A> search(String function,
                                                SearchProblem<S, A> problem,
                                                SearchHeuristic<S, A> heuristic,
+                                               SearchOptions options,
                                                boolean print) {
+        if (options.limits == null || problem.monitor != null)
+            return runSearch(function, problem, heuristic, options, print);
+
+        problem.monitor = new SearchMonitor<>(options.limits);
+        try {
+            return runSearch(function, problem, heuristic, options, print);
+        } finally {
+            problem.monitor = null;
+        }
+    }
+
+    /**
+     * Same as search, but tells apart the searches that have found a solution, those that have
+     * exhausted the search space, and those that have been aborted by options.limits, returning
+     * for the latter the most promising node reached (for the strategies keeping track of it:
+     * all but hda*, smastar, extbfs, jps and hpa).
+     */
+    public static <S, A> SearchResult<S, A> searchWithLimits(String function,
+                                                             SearchProblem<S, A> problem,
+                                                             SearchHeuristic<S, A> heuristic,
+                                                             SearchOptions options,
+                                                             boolean print) {
+        SearchMonitor<S, A> monitor = new SearchMonitor<>(options.limits == null ? new SearchLimits() : options.limits);
+        problem.monitor = monitor;
+        try {
+            Solution<S, A> solution = runSearch(function, problem, heuristic, options, print);
+            return solution == null ? SearchResult.exhausted() : SearchResult.solved(solution);
+        } catch (SearchAbortedException e) {
+            if (print)
+                out.println("Search aborted: " + e.getMessage() + ", expanded " + problem.getExpandedCount());
+            return SearchResult.aborted(e.getMessage(), monitor.getBest());
+        } finally {
+            problem.monitor = null;
+        }
+    }
+
+    /**
+     * Attaches options.listener, if any, to the problem for the duration of the search,
+     * and records the search as a flight recorder event (see SearchEvent).
+     * If options.cache holds a solution of the problem, it is returned without searching,
+     * and otherwise the solution found is added to it.
+     */
+    @SuppressWarnings("unchecked")
+    private static <S, A> Solution<S, A> runSearch(String function,
+                                                   SearchProblem<S, A> problem,
+                                                   SearchHeuristic<S, A> heuristic,
+                                                   SearchOptions options,
+                                                   boolean print) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long expandedBefore = problem.getExpandedCount();
+        boolean installListener = options.listener != null && problem.listener == null;
+        if (installListener)
+            problem.listener = (SearchListener<S, A>) options.listener;
+
+        Solution<S, A> solution = null;
+        String outcome = "aborted";
+        try {
+            solution = options.cache == null ? null : options.cache.get(function, problem, heuristic, options);
+            if (solution != null) {
+                outcome = "cached";
+                if (print)
+                    out.println("Solution found in the cache of solutions, cost " + solution.pathCost + "\n");
+                return solution;
+            }
+
+            solution = runStrategy(function, problem, heuristic, options, print);
+            outcome = solution == null ? "exhausted" : "solved";
+            if (solution != null && options.cache != null)
+                options.cache.put(function, problem, heuristic, options, solution);
+            return solution;
+        } finally {
+            if (installListener)
+                problem.listener = null;
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.strategy = function;
+                event.problemClass = problem.getClass().getName();
+                event.expansions = problem.getExpandedCount() - expandedBefore;
+                event.outcome = outcome;
+                event.solutionCost = solution == null ? Double.NaN : solution.pathCost;
+                event.commit();
+            }
+        }
+    }
+
+    private static <S, A> Solution<S, A> runStrategy(String function,
+                                                     SearchProblem<S, A> problem,
+                                                     SearchHeuristic<S, A> heuristic,
+                                                     SearchOptions options,
+                                                     boolean print) {
+        if (options.contractCorridors && problem instanceof PacmanSearchProblem && usesJunctionGraph(function))
+            return junctionSearch(function, problem, heuristic, options, print);
+
         Solution<S, A> solution;
         long start = System.currentTimeMillis();
         switch (function) {
@@ -55,7 +165,7 @@ public class GraphSearch<S,A> {
             case "ucs":
                 if (print)
                     out.println("Search using UCS algorithm");
-                solution = uniformCostSearch(problem);
+                solution = uniformCostSearch(problem, options);
                 break;
             case "greedy":
                 if (print)
@@ -65,7 +175,69 @@ public class GraphSearch<S,A> {
             case "astar":
                 if (print)
                     out.println("Search using A* algorithm and heuristic " + heuristic);
-                solution = aStarSearch(problem, heuristic);
+                solution = aStarSearch(problem, heuristic, options);
+                break;
+            case "idastar":
+                if (print)
+                    out.println("Search using IDA* algorithm and heuristic " + heuristic);
+                solution = iterativeDeepeningAStarSearch(problem, heuristic, print);
+                break;
+            case "hda*":
+                if (print)
+                    out.println("Search using HDA* algorithm with " + options.threads +
+                            " threads and heuristic " + heuristic);
+                solution = ParallelSearch.hashDistributedAStarSearch(problem, heuristic, options.threads, print);
+                break;
+            case "bibfs":
+                if (print)
+                    out.println("Search using bidirectional BFS algorithm");
+                solution = BidirectionalSearch.breadthFirstSearch(problem);
+                break;
+            case "biucs":
+                if (print)
+                    out.println("Search using bidirectional UCS algorithm");
+                solution = BidirectionalSearch.bestFirstSearch(problem, null);
+                break;
+            case "biastar":
+                if (print)
+                    out.println("Search using bidirectional A* (MM) algorithm and heuristic " + heuristic);
+                solution = BidirectionalSearch.bestFirstSearch(problem, heuristic);
+                break;
+            case "jps":
+                if (print)
+                    out.println("Search using Jump Point Search and heuristic " + heuristic);
+                solution = jumpPointSearch(problem, heuristic, print);
+                break;
+            case "hpa":
+                if (print)
+                    out.println("Search using HPA* with clusters of " + options.clusterSize + " cells and heuristic " + heuristic);
+                solution = hierarchicalSearch(problem, heuristic, options, print);
+                break;
+            case "arastar":
+                if (print)
+                    out.println("Search using ARA* algorithm with initial weight " + options.initialWeight +
+                            " and heuristic " + heuristic);
+                @SuppressWarnings("unchecked")
+                AnytimeSolutionListener<S, A> listener = (AnytimeSolutionListener<S, A>) options.anytimeListener;
+                solution = AnytimeSearch.search(problem, heuristic, options.initialWeight, options.weightDecrement,
+                        options.timeBudgetMillis, listener, print);
+                break;
+            case "smastar":
+                if (print)
+                    out.println("Search using SMA* algorithm with a budget of " + options.maxNodes +
+                            " nodes and heuristic " + heuristic);
+                solution = MemoryBoundedSearch.search(problem, heuristic, options.maxNodes, print);
+                break;
+            case "beam":
+                if (print)
+                    out.println("Search using beam search with width " + options.beamWidth + " and heuristic " + heuristic);
+                solution = beamSearch(problem, heuristic, options.beamWidth);
+                break;
+            case "extbfs":
+                if (print)
+                    out.println("Search using external-memory BFS algorithm");
+                solution = ExternalSearch.breadthFirstSearch(problem, options.externalRunLength,
+                        options.externalDirectory, print);
                 break;
             default:
                 throw new RuntimeException("Unknown search strategy: " + function);
@@ -81,7 +253,7 @@ public class GraphSearch<S,A> {
         System.out.println("Test");
         Util.Frontier<Node<S,A>> frontier = new Util.Stack<>();
         
-        return graphSearch(problem, frontier);
+        return graphSearch(problem, frontier, null);
         
     }
 
@@ -89,39 +261,307 @@ public class GraphSearch<S,A> {
 
         
         Util.Frontier<Node<S,A>> frontier = new Util.Queue<>(); // IMPLEMENTED
-        return graphSearch(problem,frontier);
+        return graphSearch(problem, frontier, null);
         
     }
 
-    private static <S, A> Solution<S, A> uniformCostSearch(SearchProblem<S, A> problem) {
-        Util.Frontier<Node<S,A>> frontier = new Util.PriorityQueue<>(
-                Comparator.comparingDouble(node -> node.pathCost)
-        );
-        return graphSearch(problem, frontier);
+    /*
+     * The informed strategies use an indexed priority queue keyed by state, so that finding
+     * a cheaper path to a state already in the frontier updates that entry (decrease-key)
+     * instead of adding a stale duplicate.
+     *
+     * The comparators only read fields of the nodes: the heuristic is evaluated once,
+     * by graphSearch, when a node is created.
+     *
+     * When the problem declares integer action costs, UCS and A* use a bucket queue instead,
+     * which pushes and pops in constant time and also keeps one node per state.
+     */
+    private static <S, A> Solution<S, A> uniformCostSearch(SearchProblem<S, A> problem, SearchOptions options) {
+        Util.Frontier<Node<S,A>> frontier;
+        if (problem.hasIntegerCosts()) {
+            frontier = new Util.BucketQueue<>(
+                    node -> (int) node.pathCost,
+                    node -> 0,
+                    false,
+                    node -> node.state,
+                    options.lifoTies
+            );
+        } else {
+            frontier = new Util.IndexedPriorityQueue<>(
+                    node -> node.state,
+                    Comparator.comparingDouble(node -> node.pathCost)
+            );
+        }
+        return graphSearch(problem, frontier, null);
     }
 
     private static <S, A> Solution<S, A> greedySearch(SearchProblem<S, A> problem, SearchHeuristic<S, A> heuristic) {
-        Util.Frontier<Node<S,A>> frontier = new Util.PriorityQueue<>(
-                Comparator.comparingDouble(node -> heuristic.value(node.state, problem))
+        Util.Frontier<Node<S,A>> frontier = new Util.IndexedPriorityQueue<>(
+                node -> node.state,
+                Comparator.comparingDouble(node -> node.heuristicValue)
         );
-        return graphSearch(problem, frontier);
+        return graphSearch(problem, frontier, heuristic);
     }
 
-    private static <S, A> Solution<S, A> aStarSearch(SearchProblem<S, A> problem, SearchHeuristic<S, A> heuristic) {
+    private static <S, A> Solution<S, A> aStarSearch(SearchProblem<S, A> problem, SearchHeuristic<S, A> heuristic,
+                                                     SearchOptions options) {
         // Same code from UCS and Greedy search
-        Util.Frontier<Node<S,A>> frontier = new Util.PriorityQueue<>(
-                Comparator.comparingDouble(node -> heuristic.value(node.state, problem)+node.pathCost)
-                
-        );
-        return graphSearch(problem, frontier);
-        // implemented
-        
+        Util.Frontier<Node<S,A>> frontier;
+        if (problem.hasIntegerCosts()) {
+            // With integer costs the optimal cost is an integer, so rounding the heuristic up keeps it admissible.
+            // Ties on f are broken in favour of the larger path cost, i.e., nodes closer to a goal.
+            frontier = new Util.BucketQueue<>(
+                    node -> (int) node.pathCost + (int) Math.ceil(node.heuristicValue),
+                    node -> (int) node.pathCost,
+                    true,
+                    node -> node.state,
+                    options.lifoTies
+            );
+        } else {
+            frontier = new Util.IndexedPriorityQueue<>(
+                    node -> node.state,
+                    Comparator.comparingDouble(node -> node.heuristicValue + node.pathCost)
+            );
+        }
+        return graphSearch(problem, frontier, heuristic);
     }
 
 
-    private static <S, A> Solution<S, A> graphSearch(SearchProblem<S, A> problem, Util.Frontier<Node<S,A>> frontier) {
+    @SuppressWarnings("unchecked")
+    private static <S, A> Solution<S, A> jumpPointSearch(SearchProblem<S, A> problem,
+                                                         SearchHeuristic<S, A> heuristic,
+                                                         boolean print) {
+        if (!(problem instanceof PacmanPositionSearchProblem))
+            throw new RuntimeException("Jump Point Search requires a PacmanPositionSearchProblem, got " +
+                    problem.getClass().getName());
+        return (Solution<S, A>) JumpPointSearch.search((PacmanPositionSearchProblem) problem,
+                (SearchHeuristic<PacmanPositionSearchState, PacmanAction>) heuristic, print);
+    }
+
+    /**
+     * @return false for the strategies that do not run on the junction graph: jps and hpa, which have their own
+     * abstractions of the maze, and the bidirectional ones, since the junction graph cannot be searched backwards
+     * (a corridor move stops at the goal or at food, which depends on the direction)
+     */
+    private static boolean usesJunctionGraph(String function) {
+        switch (function) {
+            case "jps":
+            case "hpa":
+            case "bibfs":
+            case "biucs":
+            case "biastar":
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Runs the strategy on the junction graph of the maze of the problem (see JunctionSearchProblem),
+     * with the limits and the listener of the problem, and expands the solution back into the actions
+     * of the problem. The states expanded are counted as expanded by the problem.
+     *
+     * The most promising node is not kept track of, so a search aborted by the limits returns no path.
+     */
+    @SuppressWarnings("unchecked")
+    private static <S, A> Solution<S, A> junctionSearch(String function,
+                                                        SearchProblem<S, A> problem,
+                                                        SearchHeuristic<S, A> heuristic,
+                                                        SearchOptions options,
+                                                        boolean print) {
+        SearchProblem<PacmanSearchState, PacmanAction> pacmanProblem = (SearchProblem<PacmanSearchState, PacmanAction>) problem;
+        JunctionSearchProblem<PacmanSearchState> junctionProblem =
+                new JunctionSearchProblem<>((PacmanSearchProblem<PacmanSearchState>) pacmanProblem);
+        if (print)
+            out.println(junctionProblem.getGraph());
+        if (problem.monitor != null)
+            junctionProblem.monitor = new SearchMonitor<>(problem.monitor.getLimits());
+        junctionProblem.listener = (SearchListener<PacmanSearchState, CorridorMove>) (SearchListener<?, ?>) problem.listener;
+        junctionProblem.recordVisited = problem.recordVisited;
+        try {
+            Solution<PacmanSearchState, CorridorMove> solution = runStrategy(function, junctionProblem,
+                    (SearchHeuristic<PacmanSearchState, CorridorMove>) (SearchHeuristic<?, ?>) heuristic, options, print);
+            return (Solution<S, A>) (Solution<?, ?>) junctionProblem.toCellSolution(solution);
+        } finally {
+            junctionProblem.addStatisticsTo(pacmanProblem);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, A> Solution<S, A> hierarchicalSearch(SearchProblem<S, A> problem,
+                                                            SearchHeuristic<S, A> heuristic,
+                                                            SearchOptions options,
+                                                            boolean print) {
+        if (!(problem instanceof PacmanPositionSearchProblem))
+            throw new RuntimeException("HPA* requires a PacmanPositionSearchProblem, got " +
+                    problem.getClass().getName());
+        return (Solution<S, A>) HierarchicalSearch.search((PacmanPositionSearchProblem) problem,
+                (SearchHeuristic<PacmanPositionSearchState, PacmanAction>) heuristic, options.clusterSize,
+                options.smoothPath, print);
+    }
+
+    /**
+     * Beam search: breadth-first search that keeps only the beamWidth best nodes of each layer,
+     * according to the heuristic, with ties broken by the path cost. The best nodes are selected with a
+     * bounded max-heap holding the current worst one at its head, so a layer is never sorted as a whole.
+     * A state is never added to a layer twice.
+     *
+     * Neither complete nor optimal, but both memory and time per layer are bounded by the beam width.
+     */
+    private static <S, A> Solution<S, A> beamSearch(SearchProblem<S, A> problem,
+                                                    SearchHeuristic<S, A> heuristic,
+                                                    int beamWidth) {
+        if (heuristic == null)
+            heuristic = new NullHeuristic<>();
+        if (beamWidth < 1)
+            throw new IllegalArgumentException("Expecting a positive beam width, got " + beamWidth);
+
+        Comparator<Node<S, A>> byHeuristic = Comparator.<Node<S, A>>comparingDouble(node -> node.heuristicValue)
+                .thenComparingDouble(node -> node.pathCost);
+        Util.ClosedSet<S> visited = problem.newClosedSet();
+
+        S startState = problem.getStartState();
+        Node<S, A> startNode = new Node<>(startState, null, null, 0, problem.evaluateHeuristic(heuristic, startState));
+        if (problem.isGoalState(startState))
+            return new Solution<>(startState, startNode.getActions(), 0);
+        visited.add(startState);
+
+        List<Node<S, A>> layer = new ArrayList<>();
+        layer.add(startNode);
+        while (!layer.isEmpty()) {
+            java.util.PriorityQueue<Node<S, A>> beam = new java.util.PriorityQueue<>(beamWidth, byHeuristic.reversed());
+
+            for (Node<S, A> node : layer) {
+                problem.doFrontierBookKeeping(layer.size());
+                problem.offerNode(node);
+                for (SuccessorInfo<S, A> successor : problem.expand(node.state)) {
+                    if (visited.contains(successor.nextState))
+                        continue;
+
+                    Node<S, A> child = new Node<>(successor.nextState, node, successor.action,
+                            node.pathCost + successor.cost, problem.evaluateHeuristic(heuristic, successor.nextState));
+                    // the goal may not make it into the beam, so it is tested when generated
+                    if (problem.isGoalState(child.state))
+                        return new Solution<>(child.state, child.getActions(), child.pathCost);
+
+                    if (beam.size() < beamWidth) {
+                        beam.add(child);
+                    } else if (byHeuristic.compare(child, beam.peek()) < 0) {
+                        beam.poll();
+                        beam.add(child);
+                    }
+                }
+            }
+
+            layer = new ArrayList<>(beam.size());
+            for (Node<S, A> node : beam)
+                if (visited.add(node.state))
+                    layer.add(node);
+        }
+
+        // The beam has run out of unvisited states. Return null.
+        return null;
+    }
+
+    /**
+     * Iterative-deepening A*: a sequence of depth-first searches, each bounded by a threshold on f = g + h.
+     * The threshold of the next iteration is the smallest f-value that exceeded the current one.
+     * Only the current path is kept in memory, so, unlike A*, memory use is linear in the solution depth.
+     */
+    private static <S, A> Solution<S, A> iterativeDeepeningAStarSearch(SearchProblem<S, A> problem,
+                                                                        SearchHeuristic<S, A> heuristic,
+                                                                        boolean print) {
+        if (heuristic == null)
+            heuristic = new NullHeuristic<>();
+
+        S startState = problem.getStartState();
+        Node<S, A> startNode = new Node<>(startState, null, null, 0, problem.evaluateHeuristic(heuristic, startState));
+
+        // States on the current path, to avoid going around in cycles
+        Set<S> path = new HashSet<>();
+        double threshold = startNode.heuristicValue;
+        int iteration = 0;
+
+        while (threshold != Double.POSITIVE_INFINITY) {
+            iteration++;
+            long expandedBefore = problem.getExpandedCount();
+
+            double[] nextThreshold = {Double.POSITIVE_INFINITY};
+            Node<S, A> goalNode = contourSearch(problem, heuristic, startNode, threshold, path, nextThreshold);
+
+            if (print)
+                out.println("Iteration " + iteration + ": threshold " + threshold +
+                        ", expanded " + (problem.getExpandedCount() - expandedBefore));
+
+            if (goalNode != null)
+                return new Solution<>(goalNode.state, goalNode.getActions(), goalNode.pathCost);
+
+            path.clear();
+            threshold = nextThreshold[0];
+        }
+
+        // The whole state space has been searched. Return null.
+        return null;
+    }
+
+    /**
+     * Depth-first search below node, pruning nodes whose f-value exceeds threshold.
+     * @param nextThreshold its only element is lowered to the smallest pruned f-value
+     * @return a goal node, or null if there is none within the threshold
+     */
+    private static <S, A> Node<S, A> contourSearch(SearchProblem<S, A> problem,
+                                                   SearchHeuristic<S, A> heuristic,
+                                                   Node<S, A> node,
+                                                   double threshold,
+                                                   Set<S> path,
+                                                   double[] nextThreshold) {
+        double f = node.pathCost + node.heuristicValue;
+        if (f > threshold) {
+            nextThreshold[0] = Math.min(nextThreshold[0], f);
+            return null;
+        }
+
+        if (problem.isGoalState(node.state))
+            return node;
+
+        path.add(node.state);
+        problem.offerNode(node);
+        problem.countExpansion();
+        for (SuccessorInfo<S, A> successor : problem.getSuccessors(node.state)) {
+            if (path.contains(successor.nextState))
+                continue;
+
+            Node<S, A> child = new Node<>(successor.nextState, node, successor.action,
+                    node.pathCost + successor.cost, problem.evaluateHeuristic(heuristic, successor.nextState));
+            Node<S, A> goalNode = contourSearch(problem, heuristic, child, threshold, path, nextThreshold);
+            if (goalNode != null)
+                return goalNode;
+        }
+        path.remove(node.state);
+
+        return null;
+    }
+
+    /**
+     * @param heuristic used to fill in the heuristic value of every created node; null for uninformed search
+     */
+    private static <S, A> Solution<S, A> graphSearch(SearchProblem<S, A> problem,
+                                                     Util.Frontier<Node<S,A>> frontier,
+                                                     SearchHeuristic<S, A> heuristic) {
+        // The listener of the problem, if any, is told about every step,
+        // and the frontier, the closed set and the heuristic are timed for it
+        SearchListener<S, A> listener = problem.listener;
+        if (listener != null) {
+            listener.searchStarted(problem);
+            frontier = new TimedFrontier<>(frontier, listener);
+            if (heuristic != null)
+                heuristic = new TimedHeuristic<>(heuristic, listener);
+        }
+
         // Create the starting node
-        Node<S, A> startNode = new Node<>(problem.getStartState(), new ArrayList<>(), 0);
+        S startState = problem.getStartState();
+        Node<S, A> startNode = new Node<>(startState, null, null, 0,
+                heuristic == null ? 0 : problem.evaluateHeuristic(heuristic, startState));
         // Add it to the frontier
         frontier.push(startNode);
         
@@ -129,44 +569,62 @@ public class GraphSearch<S,A> {
         
 
         // We will keep track of the states that have been already expanded
-        Set<S> expanded = new HashSet<>();
+        Util.ClosedSet<S> expanded = problem.newClosedSet();
+        if (listener != null)
+            expanded = new TimedClosedSet<>(expanded, listener);
 
         while(!frontier.isEmpty()) {
             // Get a node from the frontier (according to the strategy implemented by it)
+            problem.doFrontierBookKeeping(frontier.size());
             Node<S, A> currentNode = frontier.pop();
 
             // If the state in the current node is a goal state,
             // then we are finished!
             if(problem.isGoalState(currentNode.state)) {
+                if (listener != null)
+                    listener.goalFound(currentNode);
                 // Return the solution
-                return new Solution<>(currentNode.state, currentNode.actions, currentNode.pathCost);
+                return new Solution<>(currentNode.state, currentNode.getActions(), currentNode.pathCost);
             }
 
             // If the state in the current node has not been expanded before
-            if (!expanded.contains(currentNode.state)) {
-                expanded.add(currentNode.state);
+            // (adding it to the closed set fails otherwise)
+            if (expanded.add(currentNode.state)) {
+                problem.offerNode(currentNode);
 
                 // Expand the current state
+                long expandStart = listener == null ? 0 : System.nanoTime();
                 Collection<SuccessorInfo<S, A>> successors = problem.expand(currentNode.state);
+                if (listener != null) {
+                    listener.phaseTime(SearchPhase.SUCCESSORS, System.nanoTime() - expandStart);
+                    listener.nodeExpanded(currentNode);
+                }
                 // For each of the possible successors of the state
                 for(SuccessorInfo<S, A> successor : successors) {
 
                     S childState = successor.nextState;
 
-                    // Make sure to create a deep copy of the sequence of actions
-                    // to get (from the start state) to the child state
-                    List<A> childActions = new ArrayList<>();
-                    childActions.addAll(currentNode.actions);
-                    childActions.add(successor.action);
+                    // There is no need to add states that have already been expanded
+                    if (expanded.contains(childState)) {
+                        if (listener != null)
+                            listener.duplicateFound(childState);
+                        continue;
+                    }
 
-                    // Calculate the cost of the above sequence of actions
+                    // Calculate the cost of the sequence of actions to get to the child state
                     double childPathCost = currentNode.pathCost + successor.cost;
 
-                    // Create a new node
-                    Node<S, A> child = new Node<>(childState, childActions, childPathCost);
+                    // Create a new node that points back to the current one;
+                    // the whole sequence of actions is only rebuilt for the goal node
+                    Node<S, A> child = new Node<>(childState, currentNode, successor.action, childPathCost,
+                            heuristic == null ? 0 : problem.evaluateHeuristic(heuristic, childState));
                     // And add it to the frontier
                     frontier.push(child);
+                    if (listener != null)
+                        listener.nodeGenerated(child);
                 }
+            } else if (listener != null) {
+                listener.duplicateFound(currentNode.state);
             }
         }
 
@@ -185,9 +643,54 @@ public class GraphSearch<S,A> {
             out.println("No solution found in " + (double) runtime / 1000 + "s");
         }
         out.println("Expanded count " + searchProblem.getExpandedCount());
+        out.println("Popped count " + searchProblem.getPoppedCount());
+        out.println("Heuristic evaluations " + searchProblem.getHeuristicEvaluationCount());
+        out.println("Max frontier size " + searchProblem.getMaxFrontierSize());
+        if (searchProblem.listener instanceof SearchStatistics)
+            out.print(searchProblem.listener);
         out.println("");
     }
 }
 
-
-
+/**
+ * Parameters of the search strategies that are not shared by all of them.
+ * The defaults are used when a parameter is not set.
+ */
+class SearchOptions {
+    // number of worker threads for hda*
+    public int threads = Runtime.getRuntime().availableProcessors();
+    // heuristic weight of the first arastar iteration, and how much it decreases after each one
+    public double initialWeight = 3;
+    public double weightDecrement = 0.5;
+    // arastar returns the best solution found when the time budget is spent
+    public long timeBudgetMillis = Long.MAX_VALUE;
+    // receives every solution found by arastar, can be null
+    public AnytimeSolutionListener<?, ?> anytimeListener = null;
+    // maximum number of search tree nodes kept in memory by smastar
+    public int maxNodes = 100000;
+    // number of nodes kept in each layer by beam
+    public int beamWidth = 100;
+    // number of states extbfs sorts in memory before writing them to disk, and the directory of its files
+    // (by default the temporary directory)
+    public int externalRunLength = 1 << 22;
+    public String externalDirectory = null;
+    // limits on the effort of a search, none if null
+    public SearchLimits limits = null;
+    // observes the steps of the strategies based on graphSearch, for instance a SearchStatistics, can be null
+    public SearchListener<?, ?> listener = null;
+    // number of threads solving the problems of a batch (see BatchSearch),
+    // 0 for one virtual thread per problem if the JVM supports them, and one thread per processor otherwise
+    public int batchThreads = 0;
+    // solutions of earlier searches, returned instead of searching again, can be null
+    public SolutionCache cache = null;
+    // width and height of the clusters of hpa, and whether it shortcuts its paths with straight lines
+    public int clusterSize = 10;
+    public boolean smoothPath = false;
+    // search the problems of pacman over the junction graph of the maze, in which the corridors are single moves
+    // (see JunctionSearchProblem); not used by jps and hpa, which have their own abstractions of the maze,
+    // nor by bibfs, biucs and biastar, which need to search backwards
+    public boolean contractCorridors = false;
+    // order of the nodes with the same priority in the bucket queues of ucs and astar (see Util.BucketQueue):
+    // last-in-first-out if true, which favours the most recently generated nodes, first-in-first-out otherwise
+    public boolean lifoTies = false;
+}
@@ -0,0 +1,492 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains hierarchical path-finding (HPA*, Botea, Muller and Schaeffer, 2004)
+ * for PacmanPositionSearchProblem, called by GraphSearch.search.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.*;
+
+import static java.lang.System.out;
+
+class HierarchicalSearch {
+    private static final PacmanAction[] MOVES = MazeGraph.MOVES;
+    // entrances at least this long get a transition at each end instead of one in the middle
+    private static final int LONG_ENTRANCE = 6;
+
+    // the hierarchies of each maze, by cluster size; they do not refer to the maze, so they go away with it
+    private static final Map<Maze, Map<Integer, Hierarchy>> HIERARCHIES = new WeakHashMap<>();
+
+    /**
+     * HPA*: the maze is split into square clusters, and the cells on both sides of every opening between
+     * two neighbouring clusters become the nodes of an abstract graph. Two nodes of the same cluster
+     * are linked by the length of the shortest path between them inside the cluster, and the two sides
+     * of an opening by a single move. The graph only depends on the layout, so it is built once and reused.
+     *
+     * A search links the start and the goal to the nodes of their clusters, runs A* over the abstract graph,
+     * and then refines the abstract path into moves with a breadth-first search inside each cluster it goes
+     * through, leaving the other clusters alone. If smooth is set, the straight lines that shortcut the path
+     * are taken instead.
+     *
+     * The search is complete, but the paths may be a little longer than the optimal ones,
+     * since a path has to cross between clusters at their nodes.
+     */
+    static Solution<PacmanPositionSearchState, PacmanAction> search(PacmanPositionSearchProblem problem,
+                                                                    SearchHeuristic<PacmanPositionSearchState, PacmanAction> heuristic,
+                                                                    int clusterSize, boolean smooth, boolean print) {
+        Hierarchy hierarchy = hierarchy(problem.maze, clusterSize, print);
+        return new HierarchicalSearch(hierarchy, problem, heuristic).search(smooth, print);
+    }
+
+    /**
+     * @return the hierarchy of the maze, built on first use
+     */
+    static Hierarchy hierarchy(Maze maze, int clusterSize, boolean print) {
+        if (clusterSize < 2)
+            throw new IllegalArgumentException("Expecting a cluster size of at least 2, got " + clusterSize);
+        Hierarchy hierarchy;
+        synchronized (HIERARCHIES) {
+            hierarchy = HIERARCHIES.computeIfAbsent(maze, key -> new HashMap<>())
+                    .computeIfAbsent(clusterSize, size -> new Hierarchy(maze, size));
+        }
+        if (print)
+            out.println(hierarchy);
+        return hierarchy;
+    }
+
+    /**
+     * The abstract graph of a maze. It is not modified once built, so it can be shared by concurrent searches.
+     */
+    static class Hierarchy {
+        final MazeGraph graph;
+        final int width;
+        final int height;
+        final int clusterSize;
+        final int clustersX;
+        final int clustersY;
+        // cell (y * width + x) of every node
+        final int[] nodeCells;
+        // nodes of every cluster
+        final int[][] clusterNodes;
+        // neighbours of every node, and the costs of the edges to them
+        final int[][] edgeTargets;
+        final int[][] edgeCosts;
+
+        final long buildNanos;
+        final long edgeCount;
+
+        Hierarchy(Maze maze, int clusterSize) {
+            long start = System.nanoTime();
+            this.graph = MazeGraph.forMaze(maze);
+            this.width = maze.getWidth();
+            this.height = maze.getHeight();
+            this.clusterSize = clusterSize;
+            this.clustersX = (width + clusterSize - 1) / clusterSize;
+            this.clustersY = (height + clusterSize - 1) / clusterSize;
+
+            Map<Integer, Integer> nodeOfCell = new HashMap<>();
+            List<Integer> cells = new ArrayList<>();
+            List<List<int[]>> edges = new ArrayList<>();
+
+            // the openings between horizontally neighbouring clusters, then between vertically neighbouring ones
+            for (int x = clusterSize; x < width; x += clusterSize)
+                for (int y0 = 0; y0 < height; y0 += clusterSize)
+                    addEntrances(x - 1, y0, x, y0, 0, 1, Math.min(clusterSize, height - y0), nodeOfCell, cells, edges);
+            for (int y = clusterSize; y < height; y += clusterSize)
+                for (int x0 = 0; x0 < width; x0 += clusterSize)
+                    addEntrances(x0, y - 1, x0, y, 1, 0, Math.min(clusterSize, width - x0), nodeOfCell, cells, edges);
+
+            nodeCells = cells.stream().mapToInt(Integer::intValue).toArray();
+            List<List<Integer>> nodesOfClusters = new ArrayList<>();
+            for (int cluster = 0; cluster < clustersX * clustersY; cluster++)
+                nodesOfClusters.add(new ArrayList<>());
+            for (int node = 0; node < nodeCells.length; node++)
+                nodesOfClusters.get(cluster(nodeCells[node])).add(node);
+            clusterNodes = new int[nodesOfClusters.size()][];
+            for (int cluster = 0; cluster < clusterNodes.length; cluster++)
+                clusterNodes[cluster] = nodesOfClusters.get(cluster).stream().mapToInt(Integer::intValue).toArray();
+
+            // the paths inside every cluster between its nodes
+            int[] distances = new int[clusterSize * clusterSize];
+            int[] queue = new int[clusterSize * clusterSize];
+            for (int[] nodes : clusterNodes) {
+                for (int from : nodes) {
+                    search(nodeCells[from], -1, distances, queue, null);
+                    for (int to : nodes) {
+                        int distance = distances[local(nodeCells[to])];
+                        if (to != from && distance != -1)
+                            edges.get(from).add(new int[]{to, distance});
+                    }
+                }
+            }
+
+            edgeTargets = new int[nodeCells.length][];
+            edgeCosts = new int[nodeCells.length][];
+            long count = 0;
+            for (int node = 0; node < nodeCells.length; node++) {
+                List<int[]> nodeEdges = edges.get(node);
+                edgeTargets[node] = nodeEdges.stream().mapToInt(edge -> edge[0]).toArray();
+                edgeCosts[node] = nodeEdges.stream().mapToInt(edge -> edge[1]).toArray();
+                count += nodeEdges.size();
+            }
+            edgeCount = count;
+            buildNanos = System.nanoTime() - start;
+        }
+
+        /**
+         * Adds the entrances along the border between two clusters: the maximal runs of cells open on both sides.
+         * The border has the given length, starts at (ax, ay) on one side and (bx, by) on the other,
+         * and goes along (dx, dy).
+         */
+        private void addEntrances(int ax, int ay, int bx, int by, int dx, int dy, int length,
+                                  Map<Integer, Integer> nodeOfCell, List<Integer> cells, List<List<int[]>> edges) {
+            int runStart = -1;
+            for (int i = 0; i <= length; i++) {
+                boolean open = i < length && isOpen(ax + i * dx, ay + i * dy) && isOpen(bx + i * dx, by + i * dy);
+                if (open && runStart == -1) {
+                    runStart = i;
+                } else if (!open && runStart != -1) {
+                    int runEnd = i - 1;
+                    if (runEnd - runStart + 1 < LONG_ENTRANCE) {
+                        int middle = (runStart + runEnd) / 2;
+                        addTransition(ax + middle * dx, ay + middle * dy, bx + middle * dx, by + middle * dy,
+                                nodeOfCell, cells, edges);
+                    } else {
+                        addTransition(ax + runStart * dx, ay + runStart * dy, bx + runStart * dx, by + runStart * dy,
+                                nodeOfCell, cells, edges);
+                        addTransition(ax + runEnd * dx, ay + runEnd * dy, bx + runEnd * dx, by + runEnd * dy,
+                                nodeOfCell, cells, edges);
+                    }
+                    runStart = -1;
+                }
+            }
+        }
+
+        private void addTransition(int ax, int ay, int bx, int by,
+                                   Map<Integer, Integer> nodeOfCell, List<Integer> cells, List<List<int[]>> edges) {
+            int a = node(ay * width + ax, nodeOfCell, cells, edges);
+            int b = node(by * width + bx, nodeOfCell, cells, edges);
+            edges.get(a).add(new int[]{b, 1});
+            edges.get(b).add(new int[]{a, 1});
+        }
+
+        private static int node(int cell, Map<Integer, Integer> nodeOfCell, List<Integer> cells, List<List<int[]>> edges) {
+            return nodeOfCell.computeIfAbsent(cell, c -> {
+                cells.add(c);
+                edges.add(new ArrayList<>());
+                return cells.size() - 1;
+            });
+        }
+
+        boolean isOpen(int x, int y) {
+            return x >= 0 && y >= 0 && x < width && y < height && graph.isOpen(y * width + x);
+        }
+
+        int cluster(int cell) {
+            return (cell % width) / clusterSize + (cell / width) / clusterSize * clustersX;
+        }
+
+        /**
+         * @return the index of the cell within its cluster
+         */
+        int local(int cell) {
+            int x = cell % width, y = cell / width;
+            int x0 = x / clusterSize * clusterSize;
+            // the clusters on the right edge of the maze can be narrower
+            return (y % clusterSize) * (Math.min(x0 + clusterSize, width) - x0) + (x - x0);
+        }
+
+        /**
+         * Breadth-first search from source that does not leave its cluster, filling in the distances
+         * from source, indexed by local, -1 for the cells not reached. Stops once target is reached,
+         * unless it is -1. Every cell expanded is counted as an expansion of problem, unless it is null.
+         */
+        void search(int source, int target, int[] distances, int[] queue,
+                    PacmanPositionSearchProblem problem) {
+            int x0 = (source % width) / clusterSize * clusterSize, y0 = (source / width) / clusterSize * clusterSize;
+            int x1 = Math.min(x0 + clusterSize, width), y1 = Math.min(y0 + clusterSize, height);
+            graph.breadthFirstSearch(source, target, x0, y0, x1, y1, distances, queue, problem == null ? null :
+                    cell -> problem.doBookKeeping(new PacmanPositionSearchState(new Coordinate(cell % width, cell / width))));
+        }
+
+        /**
+         * @return an estimate of the memory used by the abstract graph, in bytes
+         */
+        long getMemoryBytes() {
+            // an array costs its header and its elements; the arrays of arrays cost one reference per element
+            long bytes = 16 + 4L * nodeCells.length;
+            for (int[] nodes : clusterNodes)
+                bytes += 4 + 16 + 4L * nodes.length;
+            for (int node = 0; node < nodeCells.length; node++)
+                bytes += 2 * (4 + 16) + 8L * edgeTargets[node].length;
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Hierarchy of %d clusters of %dx%d cells: %d nodes, %d edges, " +
+                            "built in %.3fs, about %d KB",
+                    clustersX * clustersY, clusterSize, clusterSize, nodeCells.length, edgeCount,
+                    buildNanos / 1e9, getMemoryBytes() / 1024);
+        }
+    }
+
+    private final Hierarchy hierarchy;
+    private final PacmanPositionSearchProblem problem;
+    private final SearchHeuristic<PacmanPositionSearchState, PacmanAction> heuristic;
+    private final int[] distances;
+    private final int[] queue;
+    // number of nodes expanded by the search over the abstract graph, for statistics
+    private long abstractExpandedCount = 0;
+
+    private HierarchicalSearch(Hierarchy hierarchy, PacmanPositionSearchProblem problem,
+                               SearchHeuristic<PacmanPositionSearchState, PacmanAction> heuristic) {
+        this.hierarchy = hierarchy;
+        this.problem = problem;
+        this.heuristic = heuristic;
+        this.distances = new int[hierarchy.clusterSize * hierarchy.clusterSize];
+        this.queue = new int[hierarchy.clusterSize * hierarchy.clusterSize];
+    }
+
+    /**
+     * A node of the search over the abstract graph.
+     */
+    private static class AbstractNode {
+        final int node;
+        final double pathCost;
+        final double priority;
+
+        AbstractNode(int node, double pathCost, double priority) {
+            this.node = node;
+            this.pathCost = pathCost;
+            this.priority = priority;
+        }
+    }
+
+    private Solution<PacmanPositionSearchState, PacmanAction> search(boolean smooth, boolean print) {
+        int width = hierarchy.width;
+        Coordinate startLocation = problem.getStartState().getPacmanLocation();
+        Coordinate goalLocation = problem.getGoalLocation();
+        int startCell = startLocation.y * width + startLocation.x;
+        int goalCell = goalLocation.y * width + goalLocation.x;
+        if (startCell == goalCell)
+            return new Solution<>(problem.getStartState(), new ArrayList<>(), 0);
+
+        // the start and the goal are added to the graph for this search only, after its other nodes
+        int nodeCount = hierarchy.nodeCells.length;
+        int startNode = nodeCount, goalNode = nodeCount + 1;
+        long cellsBefore = problem.getExpandedCount();
+
+        hierarchy.search(startCell, -1, distances, queue, problem);
+        Map<Integer, Integer> startEdges = new HashMap<>();
+        for (int node : hierarchy.clusterNodes[hierarchy.cluster(startCell)]) {
+            int distance = distances[hierarchy.local(hierarchy.nodeCells[node])];
+            if (distance != -1)
+                startEdges.put(node, distance);
+        }
+        if (hierarchy.cluster(startCell) == hierarchy.cluster(goalCell) && distances[hierarchy.local(goalCell)] != -1)
+            startEdges.put(goalNode, distances[hierarchy.local(goalCell)]);
+
+        hierarchy.search(goalCell, -1, distances, queue, problem);
+        Map<Integer, Integer> goalEdges = new HashMap<>();
+        for (int node : hierarchy.clusterNodes[hierarchy.cluster(goalCell)]) {
+            int distance = distances[hierarchy.local(hierarchy.nodeCells[node])];
+            if (distance != -1)
+                goalEdges.put(node, distance);
+        }
+
+        // A* over the abstract graph
+        double[] pathCosts = new double[nodeCount + 2];
+        int[] parents = new int[nodeCount + 2];
+        boolean[] expanded = new boolean[nodeCount + 2];
+        Arrays.fill(pathCosts, Double.POSITIVE_INFINITY);
+        PriorityQueue<AbstractNode> frontier = new PriorityQueue<>(Comparator.<AbstractNode>comparingDouble(
+                node -> node.priority).thenComparing(Comparator.<AbstractNode>comparingDouble(
+                node -> node.pathCost).reversed()));
+        pathCosts[startNode] = 0;
+        parents[startNode] = -1;
+        frontier.add(new AbstractNode(startNode, 0, 0));
+
+        boolean found = false;
+        while (!frontier.isEmpty()) {
+            problem.doFrontierBookKeeping(frontier.size());
+            AbstractNode node = frontier.poll();
+            if (node.node == goalNode) {
+                found = true;
+                break;
+            }
+            if (expanded[node.node])
+                continue;
+            expanded[node.node] = true;
+            abstractExpandedCount++;
+            problem.doBookKeeping(new PacmanPositionSearchState(coordinate(cellOf(node.node, startCell, goalCell))));
+
+            if (node.node == startNode) {
+                for (Map.Entry<Integer, Integer> edge : startEdges.entrySet())
+                    relax(frontier, pathCosts, parents, node, edge.getKey(), edge.getValue(), startCell, goalCell);
+            } else {
+                int[] targets = hierarchy.edgeTargets[node.node], costs = hierarchy.edgeCosts[node.node];
+                for (int i = 0; i < targets.length; i++)
+                    relax(frontier, pathCosts, parents, node, targets[i], costs[i], startCell, goalCell);
+                Integer goalDistance = goalEdges.get(node.node);
+                if (goalDistance != null)
+                    relax(frontier, pathCosts, parents, node, goalNode, goalDistance, startCell, goalCell);
+            }
+        }
+        long abstractNodes = abstractExpandedCount;
+        long insertionCells = problem.getExpandedCount() - cellsBefore - abstractNodes;
+        if (!found)
+            return null;
+
+        List<Integer> abstractPath = new ArrayList<>();
+        for (int node = goalNode; node != -1; node = parents[node])
+            abstractPath.add(cellOf(node, startCell, goalCell));
+        Collections.reverse(abstractPath);
+
+        long refinementBefore = problem.getExpandedCount();
+        List<Integer> path = refine(abstractPath);
+        long refinementCells = problem.getExpandedCount() - refinementBefore;
+        int refinedLength = path.size() - 1;
+        if (smooth)
+            path = smooth(path);
+
+        List<PacmanAction> actions = new ArrayList<>();
+        for (int i = 0; i + 1 < path.size(); i++)
+            actions.add(move(path.get(i), path.get(i + 1)));
+
+        if (print) {
+            out.println("Abstract nodes expanded " + abstractNodes + ", cells expanded while linking the start and goal " +
+                    insertionCells + " and while refining the path " + refinementCells);
+            if (smooth)
+                out.println("Path smoothed from " + refinedLength + " to " + actions.size() + " moves");
+        }
+        return new Solution<>(new PacmanPositionSearchState(goalLocation), actions, actions.size());
+    }
+
+    private void relax(PriorityQueue<AbstractNode> frontier, double[] pathCosts, int[] parents, AbstractNode node,
+                       int child, int cost, int startCell, int goalCell) {
+        double pathCost = node.pathCost + cost;
+        if (pathCost >= pathCosts[child])
+            return;
+        pathCosts[child] = pathCost;
+        parents[child] = node.node;
+        PacmanPositionSearchState childState = new PacmanPositionSearchState(coordinate(cellOf(child, startCell, goalCell)));
+        double heuristicValue = heuristic == null ? 0 : problem.evaluateHeuristic(heuristic, childState);
+        frontier.add(new AbstractNode(child, pathCost, pathCost + heuristicValue));
+    }
+
+    private int cellOf(int node, int startCell, int goalCell) {
+        int nodeCount = hierarchy.nodeCells.length;
+        return node == nodeCount ? startCell : node == nodeCount + 1 ? goalCell : hierarchy.nodeCells[node];
+    }
+
+    /**
+     * Replaces every step of the abstract path inside a cluster by the cells of the shortest path inside it.
+     * The other steps cross from one cluster to the next with a single move.
+     */
+    private List<Integer> refine(List<Integer> abstractPath) {
+        List<Integer> path = new ArrayList<>();
+        path.add(abstractPath.get(0));
+        for (int i = 0; i + 1 < abstractPath.size(); i++) {
+            int from = abstractPath.get(i), to = abstractPath.get(i + 1);
+            if (hierarchy.cluster(from) != hierarchy.cluster(to)) {
+                path.add(to);
+                continue;
+            }
+
+            hierarchy.search(from, to, distances, queue, problem);
+            // go down the distances from to back to from
+            List<Integer> segment = new ArrayList<>();
+            for (int cell = to; cell != from; ) {
+                segment.add(cell);
+                int next = -1;
+                for (PacmanAction move : MOVES) {
+                    Coordinate c = coordinate(cell).add(move.toVector());
+                    int neighbour = c.y * hierarchy.width + c.x;
+                    if (hierarchy.isOpen(c.x, c.y) && hierarchy.cluster(neighbour) == hierarchy.cluster(from) &&
+                            distances[hierarchy.local(neighbour)] == distances[hierarchy.local(cell)] - 1) {
+                        next = neighbour;
+                        break;
+                    }
+                }
+                if (next == -1)
+                    throw new RuntimeException("Cannot refine the path from " + coordinate(from) + " to " + coordinate(to));
+                cell = next;
+            }
+            Collections.reverse(segment);
+            path.addAll(segment);
+        }
+        return path;
+    }
+
+    /**
+     * Shortcuts the path with straight lines: from every cell, looks in the four directions, up to the cluster size,
+     * for a cell further along the path that the line reaches in fewer moves.
+     */
+    private List<Integer> smooth(List<Integer> path) {
+        // the last position of every cell, so that the loops of the path are cut too
+        Map<Integer, Integer> positions = new HashMap<>();
+        for (int i = 0; i < path.size(); i++)
+            positions.put(path.get(i), i);
+
+        List<Integer> smoothed = new ArrayList<>();
+        int i = 0;
+        while (i < path.size() - 1) {
+            // skip the loops of the path back to the cell
+            i = positions.get(path.get(i));
+            if (i == path.size() - 1)
+                break;
+            int cell = path.get(i);
+            smoothed.add(cell);
+            int bestPosition = i + 1, bestMove = -1, bestLength = 1;
+            for (int m = 0; m < MOVES.length; m++) {
+                Coordinate vector = MOVES[m].toVector();
+                Coordinate c = coordinate(cell);
+                for (int length = 1; length <= hierarchy.clusterSize; length++) {
+                    c = c.add(vector);
+                    if (!hierarchy.isOpen(c.x, c.y))
+                        break;
+                    Integer position = positions.get(c.y * hierarchy.width + c.x);
+                    if (position != null && position - length > bestPosition - bestLength) {
+                        bestPosition = position;
+                        bestMove = m;
+                        bestLength = length;
+                    }
+                }
+            }
+            if (bestMove != -1) {
+                // the cells of the line before the one on the path
+                Coordinate c = coordinate(cell);
+                for (int length = 1; length < bestLength; length++) {
+                    c = c.add(MOVES[bestMove].toVector());
+                    smoothed.add(c.y * hierarchy.width + c.x);
+                }
+            }
+            i = bestPosition;
+        }
+        smoothed.add(path.get(path.size() - 1));
+        return smoothed;
+    }
+
+    private Coordinate coordinate(int cell) {
+        return new Coordinate(cell % hierarchy.width, cell / hierarchy.width);
+    }
+
+    private PacmanAction move(int from, int to) {
+        Coordinate a = coordinate(from), b = coordinate(to);
+        for (PacmanAction move : MOVES)
+            if (a.add(move.toVector()).equals(b))
+                return move;
+        throw new RuntimeException("Cells " + a + " and " + b + " are not neighbours");
+    }
+}
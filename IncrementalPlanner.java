@@ -0,0 +1,425 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains an incremental planner for a ghost chasing pacman: Moving Target D* Lite
+ * (Sun, Yeoh and Koenig, 2010), a variant of D* Lite for the case where both the start (the ghost)
+ * and the goal (pacman) move.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the search tree of the previous move, rooted at the location of the ghost, between two calls
+ * of nextMove, and only repairs the part of it that has changed:
+ *  - when pacman moves, the priorities of the queued cells are corrected by the offset km (as in D* Lite),
+ *    since the heuristic towards the new location of pacman differs from the previous one
+ *    by at most the distance between the two locations;
+ *  - when the ghost moves, the cells that are not below its new location in the tree are reset
+ *    and queued again from their neighbours that are, which keeps the rest of the tree.
+ * Then the search resumes (as in LPA*) until the path to pacman is known again.
+ *
+ * The path costs kept in the tree are relative to the root of the first search: below the new root
+ * they are all off by the same amount, which does not change the order in which cells are expanded.
+ *
+ * Each ghost needs its own planner.
+ */
+class IncrementalPlanner implements GhostPlanner {
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final MazeGraph graph;
+    private final int width;
+    // g: cost of the path to a cell found by the last expansion of the cell,
+    // rhs: cost through the best parent, par: the best parent, -1 if none
+    private final int[] g;
+    private final int[] rhs;
+    private final int[] par;
+    private final CellQueue queue;
+    // cells whose g or rhs may be finite, so that a reset does not have to go through the whole maze
+    private final List<Integer> touched = new ArrayList<>();
+    private final boolean[] isTouched;
+    // used when the root moves: 1 for the cells below the new root, 2 for the others, 0 if not known yet
+    private final byte[] below;
+
+    private int start = -1;
+    private int goal = -1;
+    private int km = 0;
+
+    private long lastExpandedCount = 0;
+    private long expandedCount = 0;
+    private long resetCount = 0;
+
+    public IncrementalPlanner(Maze maze) {
+        this.graph = MazeGraph.forMaze(maze);
+        this.width = graph.width;
+        int cells = graph.size();
+        g = new int[cells];
+        rhs = new int[cells];
+        par = new int[cells];
+        isTouched = new boolean[cells];
+        below = new byte[cells];
+        queue = new CellQueue(cells);
+        Arrays.fill(g, INFINITY);
+        Arrays.fill(rhs, INFINITY);
+        Arrays.fill(par, -1);
+    }
+
+    /**
+     * @return the first move of a shortest path from ghost to target, or null if there is none
+     * or the ghost is already there
+     */
+    @Override
+    public PacmanAction nextMove(Coordinate ghost, Coordinate target) {
+        int newStart = cell(ghost);
+        int newGoal = cell(target);
+        lastExpandedCount = 0;
+
+        if (start == -1) {
+            reset(newStart);
+        } else if (newStart != start) {
+            // the tree can only be kept if the new root has been reached and its path cost is final
+            if (rhs[newStart] == INFINITY || g[newStart] != rhs[newStart])
+                reset(newStart);
+            else
+                moveRoot(newStart);
+        }
+        if (goal != -1 && newGoal != goal)
+            km += heuristic(goal, newGoal);
+        goal = newGoal;
+
+        if (start == goal || !computePath())
+            return null;
+
+        // follow the parents from the goal back to the cell right after the root
+        int next = goal;
+        for (int steps = 0; par[next] != start; steps++) {
+            if (par[next] == -1 || steps > g.length)
+                throw new RuntimeException("Broken search tree of the incremental planner at " + coordinate(next));
+            next = par[next];
+        }
+        return move(start, next);
+    }
+
+    /**
+     * @return the number of cells expanded by the last call of nextMove
+     */
+    @Override
+    public long getLastExpandedCount() {
+        return lastExpandedCount;
+    }
+
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+
+    /**
+     * @return the number of times the search tree has been thrown away, because the ghost has moved
+     * to a cell that the tree did not reach yet
+     */
+    public long getResetCount() {
+        return resetCount;
+    }
+
+    @Override
+    public String toString() {
+        return "dstar";
+    }
+
+    /**************************************************************
+     ************             Search                  *************
+     **************************************************************/
+
+    private void reset(int newStart) {
+        for (int s : touched) {
+            g[s] = INFINITY;
+            rhs[s] = INFINITY;
+            par[s] = -1;
+            isTouched[s] = false;
+        }
+        touched.clear();
+        queue.clear();
+        if (start != -1)
+            resetCount++;
+
+        start = newStart;
+        km = 0;
+        rhs[start] = 0;
+        touch(start);
+        queue.insert(start, key(start));
+    }
+
+    /**
+     * Makes newStart, which is in the tree, its root: the cells that are not below it are reset,
+     * and those that have a neighbour below it are queued with the path through that neighbour.
+     */
+    private void moveRoot(int newStart) {
+        par[newStart] = -1;
+        below[newStart] = 1;
+        List<Integer> path = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        for (int s : touched) {
+            int t = s;
+            while (below[t] == 0 && par[t] != -1) {
+                path.add(t);
+                t = par[t];
+            }
+            byte mark = below[t] == 0 ? 2 : below[t];
+            for (int p : path)
+                below[p] = mark;
+            path.clear();
+            if (below[s] == 0)
+                below[s] = 2;
+            if (below[s] == 2)
+                deleted.add(s);
+        }
+
+        for (int s : deleted) {
+            g[s] = INFINITY;
+            rhs[s] = INFINITY;
+            par[s] = -1;
+            queue.remove(s);
+        }
+        for (int s : deleted) {
+            for (int m = 0; m < MazeGraph.MOVES.length; m++) {
+                int p = graph.neighbour(s, m);
+                if (p != -1 && g[p] != INFINITY && g[p] + 1 < rhs[s]) {
+                    rhs[s] = g[p] + 1;
+                    par[s] = p;
+                }
+            }
+            if (rhs[s] != INFINITY)
+                queue.insert(s, key(s));
+        }
+
+        // forget the cells that are not in the tree anymore
+        for (int s : touched)
+            below[s] = 0;
+        touched.removeIf(s -> {
+            boolean forgotten = g[s] == INFINITY && rhs[s] == INFINITY;
+            if (forgotten)
+                isTouched[s] = false;
+            return forgotten;
+        });
+        start = newStart;
+    }
+
+    /**
+     * Expands cells (as LPA*) until the path cost of the goal is final.
+     * @return whether the goal can be reached
+     */
+    private boolean computePath() {
+        while (!queue.isEmpty() && (queue.topKey() < key(goal) || rhs[goal] > g[goal])) {
+            int u = queue.top();
+            long oldKey = queue.topKey();
+            long newKey = key(u);
+
+            if (oldKey < newKey) {
+                // the key has been computed for an earlier goal: requeue the cell, which is not an expansion
+                queue.update(u, newKey);
+                continue;
+            }
+
+            lastExpandedCount++;
+            expandedCount++;
+            if (g[u] > rhs[u]) {
+                // overconsistent: the cost through the parent is final
+                g[u] = rhs[u];
+                queue.remove(u);
+                for (int m = 0; m < MazeGraph.MOVES.length; m++) {
+                    int s = graph.neighbour(u, m);
+                    if (s != -1 && s != start && g[u] + 1 < rhs[s]) {
+                        par[s] = u;
+                        rhs[s] = g[u] + 1;
+                        touch(s);
+                        updateCell(s);
+                    }
+                }
+            } else {
+                // underconsistent: the cell has lost its path, and so may the cells below it
+                g[u] = INFINITY;
+                updateCell(u);
+                for (int m = 0; m < MazeGraph.MOVES.length; m++) {
+                    int s = graph.neighbour(u, m);
+                    if (s != -1 && s != start && par[s] == u) {
+                        rhs[s] = INFINITY;
+                        par[s] = -1;
+                        for (int parentMove = 0; parentMove < MazeGraph.MOVES.length; parentMove++) {
+                            int p = graph.neighbour(s, parentMove);
+                            if (p != -1 && g[p] != INFINITY && g[p] + 1 < rhs[s]) {
+                                rhs[s] = g[p] + 1;
+                                par[s] = p;
+                            }
+                        }
+                        updateCell(s);
+                    }
+                }
+            }
+        }
+        return rhs[goal] != INFINITY;
+    }
+
+    private void updateCell(int s) {
+        boolean inconsistent = g[s] != rhs[s];
+        if (inconsistent && queue.contains(s))
+            queue.update(s, key(s));
+        else if (inconsistent)
+            queue.insert(s, key(s));
+        else if (queue.contains(s))
+            queue.remove(s);
+    }
+
+    /**
+     * The key [min(g, rhs) + h + km; min(g, rhs)], packed in a long so that keys compare as numbers.
+     */
+    private long key(int s) {
+        int cost = Math.min(g[s], rhs[s]);
+        if (cost == INFINITY)
+            return Long.MAX_VALUE;
+        return ((long) (cost + heuristic(s, goal) + km) << 32) | cost;
+    }
+
+    private int heuristic(int from, int to) {
+        return Math.abs(from % width - to % width) + Math.abs(from / width - to / width);
+    }
+
+    private void touch(int s) {
+        if (!isTouched[s]) {
+            isTouched[s] = true;
+            touched.add(s);
+        }
+    }
+
+    /**************************************************************
+     ************              Cells                  *************
+     **************************************************************/
+
+    private int cell(Coordinate c) {
+        return c.y * width + c.x;
+    }
+
+    private Coordinate coordinate(int s) {
+        return new Coordinate(s % width, s / width);
+    }
+
+    private PacmanAction move(int from, int to) {
+        for (int m = 0; m < MazeGraph.MOVES.length; m++)
+            if (graph.neighbour(from, m) == to)
+                return MazeGraph.MOVES[m];
+        throw new RuntimeException("Cells " + coordinate(from) + " and " + coordinate(to) + " are not neighbours");
+    }
+
+    /**
+     * A binary min-heap of cells, with their position in the heap kept for updates and removals.
+     */
+    private static class CellQueue {
+        private final int[] heap;
+        private final long[] keys;
+        // position of every cell in the heap, -1 if it is not in it
+        private final int[] positions;
+        private int size = 0;
+
+        CellQueue(int cells) {
+            heap = new int[cells];
+            keys = new long[cells];
+            positions = new int[cells];
+            Arrays.fill(positions, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean contains(int cell) {
+            return positions[cell] != -1;
+        }
+
+        int top() {
+            return heap[0];
+        }
+
+        long topKey() {
+            return size == 0 ? Long.MAX_VALUE : keys[heap[0]];
+        }
+
+        void insert(int cell, long key) {
+            keys[cell] = key;
+            heap[size] = cell;
+            positions[cell] = size;
+            size++;
+            siftUp(size - 1);
+        }
+
+        void update(int cell, long key) {
+            long oldKey = keys[cell];
+            keys[cell] = key;
+            if (key < oldKey)
+                siftUp(positions[cell]);
+            else
+                siftDown(positions[cell]);
+        }
+
+        void remove(int cell) {
+            int i = positions[cell];
+            if (i == -1)
+                return;
+            positions[cell] = -1;
+            size--;
+            if (i == size)
+                return;
+            int moved = heap[size];
+            heap[i] = moved;
+            positions[moved] = i;
+            siftUp(i);
+            siftDown(positions[moved]);
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++)
+                positions[heap[i]] = -1;
+            size = 0;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (keys[heap[parent]] <= keys[heap[i]])
+                    break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i, left = 2 * i + 1, right = left + 1;
+                if (left < size && keys[heap[left]] < keys[heap[smallest]])
+                    smallest = left;
+                if (right < size && keys[heap[right]] < keys[heap[smallest]])
+                    smallest = right;
+                if (smallest == i)
+                    return;
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int cell = heap[i];
+            heap[i] = heap[j];
+            heap[j] = cell;
+            positions[heap[i]] = i;
+            positions[heap[j]] = j;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file summarises a flight recording of the game (see FlightRecorderEvents):
+ * percentiles of the tick latency and of its parts, the ticks during which the garbage collector
+ * paused the application, the ghost replans and the searches by strategy.
+ */
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static java.lang.System.out;
+
+public class JfrSummaryMain {
+
+    static void usage() {
+        out.println("usage: JfrSummaryMain <recording.jfr>");
+        out.println("Record a game with");
+        out.println("  java -XX:StartFlightRecording=filename=game.jfr PacmanMain [<option>...]");
+        System.exit(1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1 || args[0].equals("--help"))
+            usage();
+        Path recording = Paths.get(args[0]);
+
+        List<RecordedEvent> ticks = new ArrayList<>();
+        List<RecordedEvent> replans = new ArrayList<>();
+        List<RecordedEvent> pauses = new ArrayList<>();
+        Map<String, List<RecordedEvent>> searches = new TreeMap<>();
+
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            switch (event.getEventType().getName()) {
+                case "pacman.GameTick":
+                    ticks.add(event);
+                    break;
+                case "pacman.GhostReplan":
+                    replans.add(event);
+                    break;
+                case "pacman.Search":
+                    searches.computeIfAbsent(event.getString("strategy"), strategy -> new ArrayList<>()).add(event);
+                    break;
+                case "jdk.GCPhasePause":
+                    pauses.add(event);
+                    break;
+            }
+        }
+
+        out.println("Recording " + recording);
+        out.println();
+
+        out.println("Game ticks: " + ticks.size());
+        if (!ticks.isEmpty()) {
+            printPercentiles("tick", durations(ticks, null));
+            printPercentiles("pacman agent", durations(ticks, "pacmanAgentTime"));
+            printPercentiles("ghost agents", durations(ticks, "ghostAgentsTime"));
+            printPercentiles("repaint request", durations(ticks, "repaintTime"));
+
+            // a tick overlapping a pause has been delayed by the garbage collector
+            long overlapping = ticks.stream().filter(tick -> pauses.stream().anyMatch(pause ->
+                    pause.getStartTime().isBefore(tick.getEndTime()) &&
+                            tick.getStartTime().isBefore(pause.getEndTime()))).count();
+            out.println("  ticks overlapping a GC pause: " + overlapping + " (" + pauses.size() + " pauses recorded)");
+        }
+        out.println();
+
+        out.println("Ghost replans: " + replans.size());
+        if (!replans.isEmpty()) {
+            printPercentiles("replan", durations(replans, null));
+            Map<String, Integer> outcomes = new TreeMap<>();
+            Map<String, Long> expansions = new TreeMap<>();
+            for (RecordedEvent replan : replans) {
+                outcomes.merge(replan.getString("planner") + " " + replan.getString("outcome"), 1, Integer::sum);
+                expansions.merge(replan.getString("planner"), replan.getLong("expansions"), Long::sum);
+            }
+            out.println("  outcomes: " + outcomes);
+            out.println("  expansions: " + expansions);
+        }
+        out.println();
+
+        out.println("Searches: " + searches.values().stream().mapToInt(List::size).sum());
+        for (Map.Entry<String, List<RecordedEvent>> entry : searches.entrySet()) {
+            long expansions = entry.getValue().stream().mapToLong(event -> event.getLong("expansions")).sum();
+            printPercentiles(entry.getKey() + " (" + entry.getValue().size() + " searches, " +
+                    expansions + " expansions)", durations(entry.getValue(), null));
+        }
+    }
+
+    /**
+     * @param field name of a timespan field of the events, or null for the durations of the events
+     * @return the sorted durations, in nanoseconds
+     */
+    private static long[] durations(List<RecordedEvent> events, String field) {
+        long[] durations = new long[events.size()];
+        for (int i = 0; i < durations.length; i++) {
+            RecordedEvent event = events.get(i);
+            durations[i] = field == null ? event.getDuration().toNanos() : event.getDuration(field).toNanos();
+        }
+        Arrays.sort(durations);
+        return durations;
+    }
+
+    private static void printPercentiles(String name, long[] sortedNanos) {
+        out.println(String.format("  %s: p50 %s, p90 %s, p99 %s, p99.9 %s, max %s", name,
+                millis(percentile(sortedNanos, 50)), millis(percentile(sortedNanos, 90)),
+                millis(percentile(sortedNanos, 99)), millis(percentile(sortedNanos, 99.9)),
+                millis(sortedNanos[sortedNanos.length - 1])));
+    }
+
+    // nearest-rank percentile
+    private static long percentile(long[] sorted, double percent) {
+        int rank = (int) Math.ceil(percent / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3fms", nanos / 1e6);
+    }
+}
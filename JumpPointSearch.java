@@ -0,0 +1,189 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains Jump Point Search (JPS) for PacmanPositionSearchProblem,
+ * called by GraphSearch.search.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.*;
+
+import static java.lang.System.out;
+
+class JumpPointSearch {
+
+    /**
+     * Jump Point Search for the 4-connected maze with unit costs.
+     *
+     * A* is run over jump points only: instead of adding every neighbouring cell to the frontier,
+     * search moves in a straight line until it reaches a cell where the path may need to turn.
+     * Among the optimal paths only the canonical ones are considered, i.e., the ones that move
+     * horizontally first and only turn from vertical to horizontal next to a wall:
+     *
+     *  - moving horizontally, a cell is a jump point if a vertical jump from it finds a jump point;
+     *  - moving vertically, a cell is a jump point if it has a forced neighbour, that is,
+     *    the cell to its side is open while the cell to the side of the previous cell is a wall;
+     *  - the goal is always a jump point.
+     *
+     * Between two consecutive jump points the path is a straight line, so the solution
+     * is the same per-cell list of actions as the one A* finds, of the same (optimal) cost.
+     */
+    static Solution<PacmanPositionSearchState, PacmanAction> search(PacmanPositionSearchProblem problem,
+                                                                    SearchHeuristic<PacmanPositionSearchState, PacmanAction> heuristic,
+                                                                    boolean print) {
+        JumpPointSearch jps = new JumpPointSearch(problem.maze, problem.getGoalLocation());
+
+        Util.IndexedPriorityQueue<PacmanPositionSearchState, Node<PacmanPositionSearchState, PacmanAction>> frontier =
+                new Util.IndexedPriorityQueue<>(node -> node.state,
+                        Comparator.<Node<PacmanPositionSearchState, PacmanAction>>comparingDouble(
+                                node -> node.pathCost + node.heuristicValue)
+                                .thenComparing(Comparator.<Node<PacmanPositionSearchState, PacmanAction>>comparingDouble(
+                                        node -> node.pathCost).reversed()));
+        Util.ClosedSet<PacmanPositionSearchState> expanded = problem.newClosedSet();
+
+        PacmanPositionSearchState startState = problem.getStartState();
+        frontier.push(new Node<>(startState, null, null, 0, evaluate(problem, heuristic, startState)));
+
+        while (!frontier.isEmpty()) {
+            problem.doFrontierBookKeeping(frontier.size());
+            Node<PacmanPositionSearchState, PacmanAction> node = frontier.pop();
+
+            if (problem.isGoalState(node.state)) {
+                if (print)
+                    out.println("Cells scanned while jumping " + jps.scannedCount);
+                return new Solution<>(node.state, toCellActions(node), node.pathCost);
+            }
+
+            if (!expanded.add(node.state))
+                continue;
+            problem.doBookKeeping(node.state);
+
+            Coordinate location = node.state.getPacmanLocation();
+            for (PacmanAction direction : jps.prunedDirections(location, node.action)) {
+                Coordinate jumpPoint = jps.jump(location, direction);
+                if (jumpPoint == null)
+                    continue;
+
+                PacmanPositionSearchState childState = new PacmanPositionSearchState(jumpPoint);
+                if (expanded.contains(childState))
+                    continue;
+                double childPathCost = node.pathCost + location.manhattanDistance(jumpPoint);
+                frontier.push(new Node<>(childState, node, direction, childPathCost,
+                        evaluate(problem, heuristic, childState)));
+            }
+        }
+
+        return null;
+    }
+
+    private final Maze maze;
+    private final Coordinate goal;
+    // number of cells visited by the jumps, for statistics
+    long scannedCount = 0;
+
+    private JumpPointSearch(Maze maze, Coordinate goal) {
+        this.maze = maze;
+        this.goal = goal;
+    }
+
+    private static double evaluate(PacmanPositionSearchProblem problem,
+                                   SearchHeuristic<PacmanPositionSearchState, PacmanAction> heuristic,
+                                   PacmanPositionSearchState state) {
+        return heuristic == null ? 0 : problem.evaluateHeuristic(heuristic, state);
+    }
+
+    private static boolean isHorizontal(PacmanAction direction) {
+        return direction == PacmanAction.EAST || direction == PacmanAction.WEST;
+    }
+
+    private boolean isOpen(int x, int y) {
+        return x >= 0 && y >= 0 && x < maze.getWidth() && y < maze.getHeight() && !maze.isWall(x, y);
+    }
+
+    /**
+     * The directions worth following from a jump point reached by moving in the given direction
+     * (null for the start).
+     */
+    private List<PacmanAction> prunedDirections(Coordinate location, PacmanAction arrival) {
+        if (arrival == null)
+            return List.of(PacmanAction.NORTH, PacmanAction.EAST, PacmanAction.SOUTH, PacmanAction.WEST);
+
+        if (isHorizontal(arrival))
+            return List.of(arrival, PacmanAction.NORTH, PacmanAction.SOUTH);
+
+        List<PacmanAction> directions = new ArrayList<>(3);
+        directions.add(arrival);
+        int dy = arrival.toVector().y;
+        for (PacmanAction side : new PacmanAction[]{PacmanAction.EAST, PacmanAction.WEST}) {
+            int sx = location.x + side.toVector().x;
+            if (isOpen(sx, location.y) && !isOpen(sx, location.y - dy))
+                directions.add(side);
+        }
+        return directions;
+    }
+
+    /**
+     * Moves from location in the given direction until reaching a jump point.
+     * @return the jump point, or null if a wall is reached first
+     */
+    private Coordinate jump(Coordinate location, PacmanAction direction) {
+        Coordinate vector = direction.toVector();
+        int x = location.x, y = location.y;
+        while (true) {
+            x += vector.x;
+            y += vector.y;
+            scannedCount++;
+            if (!isOpen(x, y))
+                return null;
+            if (x == goal.x && y == goal.y)
+                return new Coordinate(x, y);
+
+            if (vector.y == 0) {
+                if (jumpsVertically(x, y, 1) || jumpsVertically(x, y, -1))
+                    return new Coordinate(x, y);
+            } else if ((isOpen(x + 1, y) && !isOpen(x + 1, y - vector.y)) ||
+                    (isOpen(x - 1, y) && !isOpen(x - 1, y - vector.y))) {
+                return new Coordinate(x, y);
+            }
+        }
+    }
+
+    /**
+     * Same as jump in a vertical direction, but only tells whether there is a jump point.
+     */
+    private boolean jumpsVertically(int x, int y, int dy) {
+        while (true) {
+            y += dy;
+            scannedCount++;
+            if (!isOpen(x, y))
+                return false;
+            if ((x == goal.x && y == goal.y) ||
+                    (isOpen(x + 1, y) && !isOpen(x + 1, y - dy)) ||
+                    (isOpen(x - 1, y) && !isOpen(x - 1, y - dy)))
+                return true;
+        }
+    }
+
+    /**
+     * Expands the jumps of the path to node into one action per cell.
+     */
+    private static List<PacmanAction> toCellActions(Node<PacmanPositionSearchState, PacmanAction> node) {
+        List<PacmanAction> actions = new ArrayList<>();
+        for (; node.parent != null; node = node.parent) {
+            int length = (int) node.parent.state.getPacmanLocation().manhattanDistance(node.state.getPacmanLocation());
+            for (int i = 0; i < length; i++)
+                actions.add(node.action);
+        }
+        Collections.reverse(actions);
+        return actions;
+    }
+}
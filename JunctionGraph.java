@@ -0,0 +1,362 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the junction graph of a maze, in which the corridors are contracted into single moves,
+ * and the search problem that searches it on behalf of a PacmanSearchProblem (see SearchOptions.contractCorridors).
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.*;
+
+/**
+ * The junctions of a maze, the open cells that do not have exactly two open neighbours (crossings and dead ends),
+ * and the corridors between them. A corridor is stored as the moves from one junction to the next, in both
+ * directions. A cycle without any junction gets one of its cells as a junction.
+ */
+class JunctionGraph {
+    private static final PacmanAction[] MOVES = MazeGraph.MOVES;
+
+    // the graph of each maze; the mazes are compared by identity, and the graphs do not refer to them,
+    // so the graph of a maze goes away with it
+    private static final Map<Maze, JunctionGraph> GRAPHS = new WeakHashMap<>();
+
+    private final MazeGraph graph;
+    private final int width;
+    private final int height;
+    // junction of every cell (y * width + x), -1 for the corridor cells and the walls
+    private final int[] junctionOf;
+    private final List<Integer> junctionCells = new ArrayList<>();
+    // the moves along the corridor leaving every junction in every direction (index junction * 4 + move),
+    // null if there is none, and the index of the same corridor in the other direction
+    private final List<List<PacmanAction>> corridors = new ArrayList<>();
+    private final List<Integer> reverseCorridors = new ArrayList<>();
+    // the corridor of every corridor cell, in one of its directions, and the number of moves to reach the cell along it
+    private final int[] corridorOf;
+    private final int[] corridorOffset;
+
+    private final long buildNanos;
+
+    private JunctionGraph(Maze maze) {
+        long start = System.nanoTime();
+        this.graph = MazeGraph.forMaze(maze);
+        this.width = maze.getWidth();
+        this.height = maze.getHeight();
+        junctionOf = new int[width * height];
+        corridorOf = new int[width * height];
+        corridorOffset = new int[width * height];
+        Arrays.fill(junctionOf, -1);
+        Arrays.fill(corridorOf, -1);
+
+        for (int cell = 0; cell < width * height; cell++) {
+            int degree = 0;
+            for (int m = 0; m < MOVES.length; m++)
+                if (neighbour(cell, m) != -1)
+                    degree++;
+            if (isOpen(cell) && degree != 2)
+                addJunction(cell);
+        }
+        for (int junction = 0; junction < junctionCells.size(); junction++)
+            addCorridors(junction);
+        // the cells left are on cycles without junctions
+        for (int cell = 0; cell < width * height; cell++) {
+            if (isOpen(cell) && junctionOf[cell] == -1 && corridorOf[cell] == -1)
+                addCorridors(addJunction(cell));
+        }
+        buildNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * @return the graph of the maze, built on first use
+     */
+    public static JunctionGraph forMaze(Maze maze) {
+        synchronized (GRAPHS) {
+            return GRAPHS.computeIfAbsent(maze, JunctionGraph::new);
+        }
+    }
+
+    private int addJunction(int cell) {
+        int junction = junctionCells.size();
+        junctionOf[cell] = junction;
+        junctionCells.add(cell);
+        for (int m = 0; m < MOVES.length; m++) {
+            corridors.add(null);
+            reverseCorridors.add(-1);
+        }
+        return junction;
+    }
+
+    /**
+     * Follows the corridors leaving the junction that have not been followed from their other end yet.
+     */
+    private void addCorridors(int junction) {
+        for (int m = 0; m < MOVES.length; m++) {
+            int corridor = junction * MOVES.length + m;
+            int cell = neighbour(junctionCells.get(junction), m);
+            if (cell == -1 || corridors.get(corridor) != null)
+                continue;
+
+            List<PacmanAction> moves = new ArrayList<>();
+            moves.add(MOVES[m]);
+            int arrival = m;
+            while (junctionOf[cell] == -1) {
+                if (corridorOf[cell] == -1) {
+                    corridorOf[cell] = corridor;
+                    corridorOffset[cell] = moves.size();
+                }
+                // a corridor cell has exactly two open neighbours, one of which is the previous cell
+                for (int next = 0; next < MOVES.length; next++) {
+                    if (next != (arrival + 2) % MOVES.length && neighbour(cell, next) != -1) {
+                        arrival = next;
+                        break;
+                    }
+                }
+                moves.add(MOVES[arrival]);
+                cell = neighbour(cell, arrival);
+            }
+
+            int reverse = junctionOf[cell] * MOVES.length + (arrival + 2) % MOVES.length;
+            List<PacmanAction> reverseMoves = new ArrayList<>();
+            for (int i = moves.size() - 1; i >= 0; i--)
+                reverseMoves.add(moves.get(i).reverse());
+            corridors.set(corridor, Collections.unmodifiableList(moves));
+            corridors.set(reverse, Collections.unmodifiableList(reverseMoves));
+            reverseCorridors.set(corridor, reverse);
+            reverseCorridors.set(reverse, corridor);
+        }
+    }
+
+    private boolean isOpen(int cell) {
+        return graph.isOpen(cell);
+    }
+
+    /**
+     * @return the open cell next to cell in the direction of the move, or -1
+     */
+    private int neighbour(int cell, int m) {
+        return graph.neighbour(cell, m);
+    }
+
+    /**
+     * @return the moves from location to the next junction in every direction it can go,
+     * or from a junction to the next ones
+     */
+    public List<List<PacmanAction>> corridorsFrom(Coordinate location) {
+        int cell = location.y * width + location.x;
+        List<List<PacmanAction>> result = new ArrayList<>(MOVES.length);
+        if (junctionOf[cell] != -1) {
+            for (int m = 0; m < MOVES.length; m++) {
+                List<PacmanAction> moves = corridors.get(junctionOf[cell] * MOVES.length + m);
+                if (moves != null)
+                    result.add(moves);
+            }
+        } else if (corridorOf[cell] != -1) {
+            // the rest of the corridor of the cell, and of the same corridor in the other direction
+            List<PacmanAction> forward = corridors.get(corridorOf[cell]);
+            List<PacmanAction> backward = corridors.get(reverseCorridors.get(corridorOf[cell]));
+            result.add(forward.subList(corridorOffset[cell], forward.size()));
+            result.add(backward.subList(backward.size() - corridorOffset[cell], backward.size()));
+        }
+        return result;
+    }
+
+    public boolean isJunction(Coordinate location) {
+        return junctionOf[location.y * width + location.x] != -1;
+    }
+
+    public int getJunctionCount() {
+        return junctionCells.size();
+    }
+
+    /**
+     * @return the number of corridors, counting each direction once
+     */
+    public int getCorridorCount() {
+        int count = 0;
+        for (List<PacmanAction> moves : corridors)
+            if (moves != null)
+                count++;
+        return count / 2;
+    }
+
+    /**
+     * @return the average number of moves of a corridor
+     */
+    public double getAverageCorridorLength() {
+        long moves = 0, count = 0;
+        for (List<PacmanAction> corridor : corridors) {
+            if (corridor != null) {
+                moves += corridor.size();
+                count++;
+            }
+        }
+        return count == 0 ? 0 : (double) moves / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Junction graph: %d junctions and dead ends, %d corridors of %.2f moves on average, built in %.3fs",
+                getJunctionCount(), getCorridorCount(), getAverageCorridorLength(), buildNanos / 1e9);
+    }
+}
+
+/**
+ * A move of JunctionSearchProblem: the moves of pacman along a corridor.
+ */
+class CorridorMove {
+    final List<PacmanAction> actions;
+    final double cost;
+
+    public CorridorMove(List<PacmanAction> actions, double cost) {
+        this.actions = actions;
+        this.cost = cost;
+    }
+
+    @Override
+    public String toString() {
+        return actions.get(0) + " x" + actions.size();
+    }
+}
+
+/**
+ * A PacmanSearchProblem searched over the junction graph of its maze: pacman only makes decisions at junctions,
+ * and a move takes it along a whole corridor. The states are those of the problem, and the costs of the moves are
+ * the sums of the costs of their actions, so the solutions, once expanded into actions (see toCellSolution),
+ * are as cheap as those of the problem, with fewer states expanded. The strategies that ignore the costs, such as bfs,
+ * now minimise the number of corridors followed instead of the number of actions.
+ *
+ * A move stops early wherever the problem may need to turn back: at the goal states, and where something else than
+ * the location of pacman changes, for instance where it eats food. For the states of problems other than
+ * the position and food problems, that cannot be told, so every move stops after one cell.
+ *
+ * The heuristic of the problem is evaluated against the problem, so the heuristics that check its class still work.
+ */
+class JunctionSearchProblem<S extends PacmanSearchState> extends SearchProblem<S, CorridorMove> {
+    private final PacmanSearchProblem<S> problem;
+    private final JunctionGraph graph;
+
+    public JunctionSearchProblem(PacmanSearchProblem<S> problem) {
+        this.problem = problem;
+        this.graph = JunctionGraph.forMaze(problem.maze);
+    }
+
+    public JunctionGraph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public S getStartState() {
+        return problem.getStartState();
+    }
+
+    @Override
+    public boolean isGoalState(S state) {
+        return problem.isGoalState(state);
+    }
+
+    @Override
+    public List<CorridorMove> getActions(S state) {
+        List<CorridorMove> moves = new ArrayList<>();
+        for (SuccessorInfo<S, CorridorMove> successor : getSuccessors(state))
+            moves.add(successor.action);
+        return moves;
+    }
+
+    @Override
+    public S getSuccessor(S state, CorridorMove move) {
+        for (PacmanAction action : move.actions)
+            state = problem.getSuccessor(state, action);
+        return state;
+    }
+
+    @Override
+    public double getCost(S state, CorridorMove move) {
+        return move.cost;
+    }
+
+    /**
+     * Follows every corridor from the location of pacman, until its end or a cell where the move has to stop.
+     */
+    @Override
+    public Collection<SuccessorInfo<S, CorridorMove>> getSuccessors(S state) {
+        List<SuccessorInfo<S, CorridorMove>> successors = new ArrayList<>();
+        for (List<PacmanAction> corridor : graph.corridorsFrom(state.getPacmanLocation())) {
+            S next = state;
+            double cost = 0;
+            int length = 0;
+            while (length < corridor.size()) {
+                PacmanAction action = corridor.get(length++);
+                S previous = next;
+                cost += problem.getCost(previous, action);
+                next = problem.getSuccessor(previous, action);
+                if (stopsAt(previous, next))
+                    break;
+            }
+            successors.add(new SuccessorInfo<>(next, new CorridorMove(corridor.subList(0, length), cost), cost));
+        }
+        return successors;
+    }
+
+    /**
+     * @return whether a move has to stop in next, reached from previous
+     */
+    private boolean stopsAt(S previous, S next) {
+        if (problem.isGoalState(next))
+            return true;
+        if (next instanceof PacmanPositionSearchState)
+            return false;
+        if (next instanceof PacmanFoodSearchState)
+            return ((PacmanFoodSearchState) previous).getFoodCoordinates().size() !=
+                    ((PacmanFoodSearchState) next).getFoodCoordinates().size();
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public double evaluateHeuristic(SearchHeuristic<S, CorridorMove> heuristic, S state) {
+        heuristicEvaluationCount++;
+        return ((SearchHeuristic<S, PacmanAction>) (SearchHeuristic<?, ?>) heuristic).value(state, problem);
+    }
+
+    @Override
+    public boolean hasIntegerCosts() {
+        return problem.hasIntegerCosts();
+    }
+
+    @Override
+    public StateCodec<S> getStateCodec() {
+        return problem.getStateCodec();
+    }
+
+    /**
+     * @return the solution with the moves expanded into the actions of the problem, or null if solution is null
+     */
+    public Solution<S, PacmanAction> toCellSolution(Solution<S, CorridorMove> solution) {
+        if (solution == null)
+            return null;
+        List<PacmanAction> actions = new ArrayList<>();
+        for (CorridorMove move : solution.actions)
+            actions.addAll(move.actions);
+        return new Solution<>(solution.goalState, actions, solution.pathCost);
+    }
+
+    /**
+     * Adds the statistics of the search of this problem to those of the problem it stands for,
+     * so that they are reported as usual.
+     */
+    void addStatisticsTo(SearchProblem<S, PacmanAction> target) {
+        target.expandedCount += expandedCount;
+        target.poppedCount += poppedCount;
+        target.heuristicEvaluationCount += heuristicEvaluationCount;
+        target.maxFrontierSize = Math.max(target.maxFrontierSize, maxFrontierSize);
+        target.visitedList.addAll(visitedList);
+    }
+}
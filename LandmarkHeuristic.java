@@ -0,0 +1,186 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the landmark (ALT) heuristic for PacmanPositionSearchProblem.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A lower bound on the maze distance from the triangle inequality (A*, landmarks and the triangle inequality,
+ * Goldberg and Harrelson, 2005). For a landmark L, the distance from a cell c to the goal g is at least
+ * |d(L, c) - d(L, g)|, so the largest of these bounds over a few landmarks is admissible, and consistent.
+ * Unlike the Manhattan distance, it accounts for the walls: the bound is exact whenever the goal lies
+ * on a shortest path from a landmark to the cell, or the cell on one from a landmark to the goal.
+ *
+ * The landmarks are chosen by farthest-point selection, each as far as possible from the previous ones,
+ * so that they end up at the edges of the maze, and the distances from every landmark to every cell
+ * are computed once per maze with a breadth-first search. A value is then the maximum of the bounds
+ * of the landmarks, and of the Manhattan distance, which is sometimes better in open areas.
+ */
+class LandmarkHeuristic implements SearchHeuristic<PacmanPositionSearchState, PacmanAction> {
+    public static final int DEFAULT_LANDMARK_COUNT = 8;
+
+    // the landmarks of each maze, by number of landmarks; they do not refer to the maze, so they go away with it
+    private static final Map<Maze, Map<Integer, Landmarks>> LANDMARKS = new WeakHashMap<>();
+
+    private final int landmarkCount;
+    // the landmarks of the layout of the last evaluation, so that the next ones do not look them up;
+    // read once per evaluation, since the threads of hda* share the heuristic
+    private Landmarks landmarks = null;
+
+    public LandmarkHeuristic() {
+        this(DEFAULT_LANDMARK_COUNT);
+    }
+
+    public LandmarkHeuristic(int landmarkCount) {
+        if (landmarkCount < 1)
+            throw new IllegalArgumentException("Expecting at least one landmark, got " + landmarkCount);
+        this.landmarkCount = landmarkCount;
+    }
+
+    @Override
+    public double value(PacmanPositionSearchState state, SearchProblem<PacmanPositionSearchState, PacmanAction> problem) {
+        if (problem instanceof PacmanPositionSearchProblem) {
+            PacmanPositionSearchProblem positionProblem = (PacmanPositionSearchProblem) problem;
+            Landmarks current = landmarks;
+            if (current == null || current.layoutHash != positionProblem.maze.getLayoutHash()) {
+                current = forMaze(positionProblem.maze, landmarkCount);
+                landmarks = current;
+            }
+            return current.lowerBound(state.getPacmanLocation(), positionProblem.getGoalLocation());
+        }
+        return 0.0;
+    }
+
+    /**
+     * @return the landmarks of the maze, chosen and computed on first use
+     */
+    static Landmarks forMaze(Maze maze, int landmarkCount) {
+        synchronized (LANDMARKS) {
+            return LANDMARKS.computeIfAbsent(maze, key -> new HashMap<>())
+                    .computeIfAbsent(landmarkCount, count -> new Landmarks(maze, count));
+        }
+    }
+
+    @Override
+    public Object getCacheKey() {
+        return Arrays.asList(getClass().getName(), landmarkCount);
+    }
+
+    public String toString() { return this.getClass().getName(); }
+
+    /**
+     * The landmarks of a maze and the distances from them. Not modified once computed,
+     * so they can be shared by concurrent searches.
+     */
+    static class Landmarks {
+        final long layoutHash;
+        private final int width;
+        private final int height;
+        private final int count;
+        // the cells (y * width + x) of the landmarks
+        private final int[] landmarkCells;
+        // the distance from every landmark to every cell, at index cell * count + landmark,
+        // so that the distances of a cell are next to each other; MazeGraph.UNREACHED if the cell cannot be reached
+        private final int[] distances;
+        final long buildNanos;
+
+        Landmarks(Maze maze, int landmarkCount) {
+            long start = System.nanoTime();
+            MazeGraph graph = MazeGraph.forMaze(maze);
+            this.layoutHash = maze.getLayoutHash();
+            this.width = graph.width;
+            this.height = graph.height;
+            int cells = graph.size();
+
+            int first = -1;
+            for (int cell = 0; cell < cells && first == -1; cell++)
+                if (graph.isOpen(cell))
+                    first = cell;
+            if (first == -1)
+                throw new IllegalArgumentException("Cannot place landmarks in a maze without open cells");
+
+            this.count = landmarkCount;
+            this.landmarkCells = new int[landmarkCount];
+            this.distances = new int[cells * landmarkCount];
+            int[] row = new int[cells];
+            int[] queue = new int[cells];
+            // the distance from every cell to the closest landmark so far, MAX_VALUE if none reaches it
+            int[] closest = new int[cells];
+            Arrays.fill(closest, Integer.MAX_VALUE);
+
+            // the first landmark is the farthest cell from an arbitrary one
+            graph.breadthFirstSearch(first, row, queue);
+            int landmark = farthest(graph, row);
+            for (int l = 0; l < landmarkCount; l++) {
+                landmarkCells[l] = landmark;
+                graph.breadthFirstSearch(landmark, row, queue);
+                for (int cell = 0; cell < cells; cell++) {
+                    distances[cell * landmarkCount + l] = row[cell];
+                    if (row[cell] != MazeGraph.UNREACHED)
+                        closest[cell] = Math.min(closest[cell], row[cell]);
+                }
+                // the next one is the farthest cell from all of them, favouring the cells that none of them reaches
+                landmark = farthest(graph, closest);
+            }
+            buildNanos = System.nanoTime() - start;
+        }
+
+        /**
+         * @return the open cell with the largest value in values
+         */
+        private static int farthest(MazeGraph graph, int[] values) {
+            int best = -1;
+            for (int cell = 0; cell < values.length; cell++)
+                if (graph.isOpen(cell) && (best == -1 || values[cell] > values[best]))
+                    best = cell;
+            return best;
+        }
+
+        /**
+         * @return a lower bound on the maze distance between two open cells; if they cannot reach each other,
+         * the number of cells of the maze, which is admissible as well
+         */
+        double lowerBound(Coordinate from, Coordinate to) {
+            int fromIndex = (from.y * width + from.x) * count, toIndex = (to.y * width + to.x) * count;
+            int bound = Math.abs(from.x - to.x) + Math.abs(from.y - to.y);
+            for (int l = 0; l < count; l++) {
+                int fromDistance = distances[fromIndex + l], toDistance = distances[toIndex + l];
+                if ((fromDistance == MazeGraph.UNREACHED) != (toDistance == MazeGraph.UNREACHED))
+                    return width * height;
+                bound = Math.max(bound, Math.abs(fromDistance - toDistance));
+            }
+            return bound;
+        }
+
+        /**
+         * @return the landmarks
+         */
+        Coordinate[] getLandmarks() {
+            Coordinate[] coordinates = new Coordinate[count];
+            for (int l = 0; l < count; l++)
+                coordinates[l] = new Coordinate(landmarkCells[l] % width, landmarkCells[l] / width);
+            return coordinates;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d landmarks at %s, computed in %.3fs, %d KB of distances",
+                    count, Arrays.toString(getLandmarks()), buildNanos / 1e9, (long) distances.length * Integer.BYTES / 1024);
+        }
+    }
+}
@@ -44,6 +44,8 @@ class Maze
     private Coordinate initialPacmanLocation;
     private final int width;
     private final int height;
+    // hash of the walls, which never change
+    private final long layoutHash;
     //TODO: create a variable for ghostsLocations
 
     private final String TEXT_RESET = "\u001B[0m";
@@ -69,6 +71,24 @@ class Maze
         this.height = height;
         this.initialPacmanLocation = pacmanLocation;
         this.initialGhostLocations = ghosts;
+        this.layoutHash = hashWalls(walls);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the walls, row by row.
+     */
+    private static long hashWalls(boolean[][] walls) {
+        long hash = 0xcbf29ce484222325L;
+        for (boolean[] row : walls) {
+            for (boolean wall : row) {
+                hash ^= wall ? 1 : 0;
+                hash *= 0x100000001b3L;
+            }
+            // separates the rows, so that layouts of different widths give different hashes
+            hash ^= 2;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 
     /**
@@ -252,6 +272,14 @@ class Maze
 
     public boolean isSuperFood(int x, int y) {return superFood[y][x];}
 
+    /**
+     * @return a hash of the walls: two mazes with the same layout have the same hash,
+     * whatever their food and the locations of pacman and the ghosts
+     */
+    public long getLayoutHash() {
+        return layoutHash;
+    }
+
     public int getWidth() {
         return width;
     }
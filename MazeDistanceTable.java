@@ -0,0 +1,274 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the table of the maze distances between all pairs of open cells of a maze,
+ * and the heuristic based on it.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * The length of a shortest path between every two open cells of a maze, computed with one breadth-first
+ * search per open cell, in parallel. The open cells are numbered row by row, and the distances are kept
+ * in an n x n matrix of chars (unsigned 16-bit numbers), so a lookup is a single read.
+ *
+ * A table can be stored in a file named after the hash of the layout (see Maze.getLayoutHash), and mapped
+ * back into memory instead of being computed again.
+ */
+class MazeDistanceTable {
+    // distance between cells that cannot reach each other
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final char NO_PATH = java.lang.Character.MAX_VALUE;
+
+    // first bytes of a table file, followed by the layout hash, the width, the height and the number of open cells
+    private static final long MAGIC = 0x4d415a4544495354L;
+    private static final int HEADER_BYTES = 32;
+
+    /*
+     * The table of each maze, shared by all its users; the mazes are compared by identity, and the tables
+     * do not refer to them, so the table of a maze goes away with it. If storageDirectory is set, tables are
+     * also stored there and loaded from there, which is how they are reused by the mazes read from one layout.
+     */
+    private static final Map<Maze, MazeDistanceTable> TABLES = new WeakHashMap<>();
+    static volatile Path storageDirectory = null;
+
+    private final int width;
+    private final int height;
+    private final long layoutHash;
+    private final MazeGraph graph;
+    // id of every cell (y * width + x), -1 for walls
+    private final int[] ids;
+    // cell of every id
+    private final int[] cells;
+    private final CharBuffer distances;
+
+    private MazeDistanceTable(Maze maze, CharBuffer distances) {
+        this.width = maze.getWidth();
+        this.height = maze.getHeight();
+        this.layoutHash = maze.getLayoutHash();
+        this.graph = MazeGraph.forMaze(maze);
+        this.ids = new int[width * height];
+        int count = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                ids[y * width + x] = maze.isWall(x, y) ? -1 : count++;
+            }
+        }
+        if ((long) count * count * java.lang.Character.BYTES > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Maze with " + count + " open cells is too large for a distance table");
+
+        this.cells = new int[count];
+        for (int cell = 0; cell < ids.length; cell++) {
+            if (ids[cell] != -1)
+                cells[ids[cell]] = cell;
+        }
+        this.distances = distances == null ? CharBuffer.allocate(count * count) : distances;
+    }
+
+    /**
+     * @return the table of the maze, computed, or loaded from storageDirectory, on first use
+     */
+    public static MazeDistanceTable forMaze(Maze maze) {
+        synchronized (TABLES) {
+            return TABLES.computeIfAbsent(maze, key -> {
+                Path directory = storageDirectory;
+                if (directory == null)
+                    return compute(maze);
+                try {
+                    return load(maze, directory);
+                } catch (IOException e) {
+                    throw new RuntimeException("Cannot store the distance table in " + directory, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Computes the table in memory.
+     */
+    public static MazeDistanceTable compute(Maze maze) {
+        MazeDistanceTable table = new MazeDistanceTable(maze, null);
+        table.fill();
+        return table;
+    }
+
+    /**
+     * Maps the table of the layout of the maze from its file in directory, after computing it
+     * and writing the file if there is none yet.
+     */
+    public static MazeDistanceTable load(Maze maze, Path directory) throws IOException {
+        Path file = directory.resolve(String.format("maze-distances-%016x-%dx%d.bin",
+                maze.getLayoutHash(), maze.getWidth(), maze.getHeight()));
+        int count = countOpenCells(maze);
+        long size = HEADER_BYTES + (long) count * count * java.lang.Character.BYTES;
+
+        if (Files.exists(file) && Files.size(file) == size) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                channel.read(header, 0);
+                header.flip();
+                if (header.getLong() == MAGIC && header.getLong() == maze.getLayoutHash() &&
+                        header.getInt() == maze.getWidth() && header.getInt() == maze.getHeight() &&
+                        header.getInt() == count) {
+                    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, size - HEADER_BYTES);
+                    return new MazeDistanceTable(maze, mapped.asCharBuffer());
+                }
+            }
+        }
+
+        // write a new file next to the final one, and only give it its name once complete,
+        // so that a reader never maps a partial table
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "maze-distances", ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putLong(MAGIC).putLong(maze.getLayoutHash())
+                    .putInt(maze.getWidth()).putInt(maze.getHeight()).putInt(count);
+            header.flip();
+            channel.write(header, 0);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES, size - HEADER_BYTES);
+            MazeDistanceTable table = new MazeDistanceTable(maze, mapped.asCharBuffer());
+            table.fill();
+            mapped.force();
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return table;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static int countOpenCells(Maze maze) {
+        int count = 0;
+        for (int y = 0; y < maze.getHeight(); y++)
+            for (int x = 0; x < maze.getWidth(); x++)
+                if (!maze.isWall(x, y))
+                    count++;
+        return count;
+    }
+
+    /**
+     * Runs one breadth-first search per open cell, in parallel, each filling in the row of its cell.
+     */
+    private void fill() {
+        int n = size();
+        IntStream.range(0, n).parallel().forEach(source -> {
+            int[] cellDistances = new int[graph.size()];
+            int[] queue = new int[graph.size()];
+            graph.breadthFirstSearch(cells[source], cellDistances, queue);
+            char[] row = new char[n];
+            for (int id = 0; id < n; id++) {
+                int distance = cellDistances[cells[id]];
+                row[id] = distance == MazeGraph.UNREACHED ? NO_PATH : (char) distance;
+            }
+            // every row is written through its own view of the buffer, so the rows can be written concurrently
+            CharBuffer view = distances.duplicate();
+            view.position(source * n);
+            view.put(row);
+        });
+    }
+
+    /**
+     * @return the number of open cells
+     */
+    public int size() {
+        return cells.length;
+    }
+
+    public long getLayoutHash() {
+        return layoutHash;
+    }
+
+    /**
+     * @return the id of the open cell (x, y), or -1 if it is a wall or outside of the maze
+     */
+    public int id(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            return -1;
+        return ids[y * width + x];
+    }
+
+    /**
+     * @return the maze distance between two open cells, given by their ids, or UNREACHABLE
+     */
+    public int distance(int fromId, int toId) {
+        char distance = distances.get(fromId * cells.length + toId);
+        return distance == NO_PATH ? UNREACHABLE : distance;
+    }
+
+    /**
+     * @return the maze distance between two open cells, or UNREACHABLE if there is no path between them
+     */
+    public int distance(Coordinate from, Coordinate to) {
+        int fromId = id(from.x, from.y), toId = id(to.x, to.y);
+        if (fromId == -1 || toId == -1)
+            throw new IllegalArgumentException("Expecting open cells, got " + from + " and " + to);
+        return distance(fromId, toId);
+    }
+
+    /**
+     * @return the first move of a shortest path from one open cell to another, or null if there is none
+     * or the cells are the same
+     */
+    public PacmanAction nextMove(Coordinate from, Coordinate to) {
+        int fromId = id(from.x, from.y), toId = id(to.x, to.y);
+        if (fromId == -1 || toId == -1)
+            throw new IllegalArgumentException("Expecting open cells, got " + from + " and " + to);
+        int distance = distance(fromId, toId);
+        if (distance == 0 || distance == UNREACHABLE)
+            return null;
+        for (int m = 0; m < MazeGraph.MOVES.length; m++) {
+            int next = graph.neighbour(cells[fromId], m);
+            if (next != -1 && distance(ids[next], toId) == distance - 1)
+                return MazeGraph.MOVES[m];
+        }
+        throw new RuntimeException("Inconsistent distance table at " + from);
+    }
+}
+
+/**
+ * The exact maze distance to the goal of a PacmanPositionSearchProblem, read from the distance table
+ * of the maze, which is computed on first use. A* then only expands the cells of a shortest path.
+ */
+class MazeDistanceHeuristic implements SearchHeuristic<PacmanPositionSearchState, PacmanAction> {
+    // the table of the layout of the last evaluation, so that the next ones do not look it up;
+    // read once per evaluation, since the threads of hda* share the heuristic
+    private MazeDistanceTable table = null;
+
+    public MazeDistanceHeuristic() {}
+
+    @Override
+    public double value(PacmanPositionSearchState state, SearchProblem<PacmanPositionSearchState, PacmanAction> problem) {
+        if (problem instanceof PacmanPositionSearchProblem) {
+            PacmanPositionSearchProblem positionProblem = (PacmanPositionSearchProblem) problem;
+            MazeDistanceTable table = this.table;
+            if (table == null || table.getLayoutHash() != positionProblem.maze.getLayoutHash()) {
+                table = MazeDistanceTable.forMaze(positionProblem.maze);
+                this.table = table;
+            }
+            int distance = table.distance(state.getPacmanLocation(), positionProblem.getGoalLocation());
+            // any value is admissible when the goal cannot be reached; a finite one keeps integer priorities valid
+            return distance == MazeDistanceTable.UNREACHABLE ? table.size() : distance;
+        }
+        return 0.0;
+    }
+
+    public String toString() { return this.getClass().getName(); }
+}
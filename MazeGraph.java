@@ -0,0 +1,149 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the graph of the open cells of a maze, with the breadth-first search over it
+ * used by the structures computed from the layout (flow fields, distance tables, landmarks, ...).
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * The open cells of a maze, numbered y * width + x, and the moves between them. The neighbours of every cell
+ * are computed once, so that a search only reads an array instead of looking at the walls.
+ * Not modified once built, so it can be shared by threads.
+ */
+class MazeGraph {
+    // the moves, in the order of the neighbours of a cell; the reverse of move m is (m + 2) % 4
+    static final PacmanAction[] MOVES = {PacmanAction.NORTH, PacmanAction.EAST,
+            PacmanAction.SOUTH, PacmanAction.WEST};
+    // distance of the cells that a search does not reach
+    static final int UNREACHED = -1;
+
+    // the graph of each maze; the mazes are compared by identity, and the graphs do not refer to them,
+    // so the graph of a maze goes away with it
+    private static final Map<Maze, MazeGraph> GRAPHS = new WeakHashMap<>();
+
+    final int width;
+    final int height;
+    // cells of the neighbours of every cell, in the order of MOVES, -1 for walls and the outside of the maze
+    private final int[] neighbours;
+    private final boolean[] open;
+
+    private MazeGraph(Maze maze) {
+        this.width = maze.getWidth();
+        this.height = maze.getHeight();
+        int cells = width * height;
+        this.open = new boolean[cells];
+        for (int cell = 0; cell < cells; cell++)
+            open[cell] = !maze.isWall(cell % width, cell / width);
+        this.neighbours = new int[cells * MOVES.length];
+        for (int cell = 0; cell < cells; cell++) {
+            int x = cell % width, y = cell / width;
+            for (int m = 0; m < MOVES.length; m++) {
+                Coordinate vector = MOVES[m].toVector();
+                int nx = x + vector.x, ny = y + vector.y;
+                boolean inside = nx >= 0 && ny >= 0 && nx < width && ny < height;
+                neighbours[cell * MOVES.length + m] = inside && open[ny * width + nx] ? ny * width + nx : -1;
+            }
+        }
+    }
+
+    /**
+     * @return the graph of the maze, built on first use
+     */
+    static MazeGraph forMaze(Maze maze) {
+        synchronized (GRAPHS) {
+            return GRAPHS.computeIfAbsent(maze, MazeGraph::new);
+        }
+    }
+
+    /**
+     * @return the number of cells, walls included
+     */
+    int size() {
+        return open.length;
+    }
+
+    boolean isOpen(int cell) {
+        return open[cell];
+    }
+
+    /**
+     * @return the open cell next to cell in the direction of MOVES[move], or -1
+     */
+    int neighbour(int cell, int move) {
+        return neighbours[cell * MOVES.length + move];
+    }
+
+    /**
+     * Breadth-first search from source over the whole maze, filling in the distance from source
+     * of every cell, UNREACHED for the cells that cannot be reached.
+     *
+     * @param distances one entry per cell
+     * @param queue one entry per cell, reused by the calls
+     * @return the number of cells reached
+     */
+    int breadthFirstSearch(int source, int[] distances, int[] queue) {
+        return breadthFirstSearch(source, -1, 0, 0, width, height, distances, queue, null);
+    }
+
+    /**
+     * Breadth-first search from source that does not leave the window of the cells (x, y) with x0 <= x < x1
+     * and y0 <= y < y1. The distances are indexed within the window, by (y - y0) * (x1 - x0) + (x - x0),
+     * which is the cell itself for the whole maze.
+     *
+     * @param target the search stops once this cell is expanded, unless it is -1
+     * @param distances one entry per cell of the window, UNREACHED for the cells not reached
+     * @param queue one entry per cell of the window
+     * @param expanded told about every cell expanded, in order, can be null
+     * @return the number of cells expanded
+     */
+    int breadthFirstSearch(int source, int target, int x0, int y0, int x1, int y1,
+                           int[] distances, int[] queue, IntConsumer expanded) {
+        int windowWidth = x1 - x0;
+        // over the whole maze the index is the cell, and no move leaves the window
+        boolean whole = x0 == 0 && y0 == 0 && x1 == width && y1 == height;
+        Arrays.fill(distances, 0, windowWidth * (y1 - y0), UNREACHED);
+        distances[whole ? source : (source / width - y0) * windowWidth + (source % width - x0)] = 0;
+        queue[0] = source;
+        int head = 0, tail = 1;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (expanded != null)
+                expanded.accept(cell);
+            if (cell == target)
+                break;
+            int distance = distances[whole ? cell : (cell / width - y0) * windowWidth + (cell % width - x0)];
+            for (int m = 0; m < MOVES.length; m++) {
+                int next = neighbours[cell * MOVES.length + m];
+                if (next == -1)
+                    continue;
+                int index = next;
+                if (!whole) {
+                    int x = next % width, y = next / width;
+                    if (x < x0 || y < y0 || x >= x1 || y >= y1)
+                        continue;
+                    index = (y - y0) * windowWidth + (x - x0);
+                }
+                if (distances[index] == UNREACHED) {
+                    distances[index] = distance + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return head;
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains a memory-bounded search strategy, simplified memory-bounded A* (SMA*),
+ * called by GraphSearch.search.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.*;
+
+import static java.lang.System.out;
+
+class MemoryBoundedSearch<S, A> {
+
+    /**
+     * Simplified memory-bounded A* (Russell, 1992).
+     *
+     * Works like A* on the search tree, generating one successor at a time, but keeps at most maxNodes
+     * nodes in memory. When the budget is reached, the worst leaf (the one with the highest f-value,
+     * the shallowest among equal ones) is forgotten and its f-value is backed up to its parent,
+     * so that the parent knows how good the forgotten subtree is and regenerates it only
+     * once everything else looks worse.
+     *
+     * The f-value of a node is a lower bound on the cost of the solutions below it: the maximum of
+     * g + h and the f-value of its parent, raised to the smallest f-value of its successors once they
+     * have all been generated. Paths that cannot fit in memory get an infinite f-value. The solution
+     * is optimal if the optimal path fits in memory (with an admissible heuristic), otherwise the search
+     * returns null.
+     *
+     * A path of the tree has at most maxNodes - 1 actions. When the problem bounds its action costs
+     * (see SearchProblem.getMaxActionCost), the heuristic value divided by that bound is a lower bound
+     * on the number of actions to a goal, so the nodes from which no goal can be reached within the budget
+     * are cut off as soon as they are generated, and the search returns null at once if the start state
+     * is such a node. Otherwise only the depth is checked, and with a budget at or below the length
+     * of the solutions the search can take exponential time to exhaust the shorter paths before it fails;
+     * give it SearchLimits in that case.
+     *
+     * Repeated states are pruned when they are on the current path, or when a node with the same state,
+     * a path cost that is not larger and a depth that is not larger is in memory: the solutions below
+     * such a node are at least as good, and they are still reachable if the node is forgotten later,
+     * through the f-value backed up to its parent.
+     */
+    static <S, A> Solution<S, A> search(SearchProblem<S, A> problem,
+                                        SearchHeuristic<S, A> heuristic,
+                                        int maxNodes,
+                                        boolean print) {
+        if (heuristic == null)
+            heuristic = new NullHeuristic<>();
+        if (maxNodes < 2)
+            throw new IllegalArgumentException("Expecting a node budget of at least 2, got " + maxNodes);
+
+        MemoryBoundedSearch<S, A> search = new MemoryBoundedSearch<>(problem, heuristic, maxNodes);
+        Solution<S, A> solution = search.search();
+
+        if (print) {
+            out.println("Node budget " + maxNodes + ", max nodes in memory " + search.maxNodesInMemory);
+            out.println("Forgotten nodes " + search.forgottenCount + ", regenerated nodes " + search.regeneratedCount);
+        }
+        return solution;
+    }
+
+    /**
+     * A node of the search tree. Its successors are computed when the node is first selected
+     * and are then added to the tree one at a time.
+     */
+    private static class SmaNode<S, A> {
+        final S state;
+        final SmaNode<S, A> parent;
+        final A action;
+        final double pathCost;
+        final int depth;
+        // index of this node among the successors of its parent
+        final int index;
+        // sequence number, to break ties in the sorted sets
+        final long id;
+        double f;
+
+        List<SuccessorInfo<S, A>> successors;
+        // number of successors added to the tree at least once
+        int generatedCount = 0;
+        // successors currently in memory, null at the other positions
+        SmaNode<S, A>[] children;
+        int childrenInMemory = 0;
+        // backed-up f-values of forgotten successors, NaN for the ones in memory or never generated
+        double[] forgottenF;
+        int forgottenCount = 0;
+
+        // the priority of the node in the open set
+        double openKey;
+
+        SmaNode(S state, SmaNode<S, A> parent, A action, double pathCost, int index, long id) {
+            this.state = state;
+            this.parent = parent;
+            this.action = action;
+            this.pathCost = pathCost;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.index = index;
+            this.id = id;
+        }
+
+        boolean isOnPath(S otherState) {
+            for (SmaNode<S, A> node = this; node != null; node = node.parent)
+                if (node.state.equals(otherState))
+                    return true;
+            return false;
+        }
+
+        List<A> getActions() {
+            List<A> actions = new ArrayList<>();
+            for (SmaNode<S, A> node = this; node.parent != null; node = node.parent)
+                actions.add(node.action);
+            Collections.reverse(actions);
+            return actions;
+        }
+    }
+
+    private final SearchProblem<S, A> problem;
+    private final SearchHeuristic<S, A> heuristic;
+    private final int maxNodes;
+    private final double maxActionCost;
+
+    // nodes that still have successors to add to the tree, best first
+    private final TreeSet<SmaNode<S, A>> open = new TreeSet<>(
+            Comparator.<SmaNode<S, A>>comparingDouble(node -> node.openKey)
+                    .thenComparing(Comparator.<SmaNode<S, A>>comparingInt(node -> node.depth).reversed())
+                    .thenComparingLong(node -> node.id));
+    // nodes without successors in memory, worst first
+    private final TreeSet<SmaNode<S, A>> leaves = new TreeSet<>(
+            Comparator.<SmaNode<S, A>>comparingDouble(node -> node.f).reversed()
+                    .thenComparingInt(node -> node.depth)
+                    .thenComparingLong(node -> node.id));
+
+    // the node in memory with the cheapest path cost for each state
+    private final Map<S, SmaNode<S, A>> bestInMemory = new HashMap<>();
+
+    private long nextId = 0;
+    private int nodesInMemory = 0;
+    int maxNodesInMemory = 0;
+    long forgottenCount = 0;
+    long regeneratedCount = 0;
+
+    private MemoryBoundedSearch(SearchProblem<S, A> problem, SearchHeuristic<S, A> heuristic, int maxNodes) {
+        this.problem = problem;
+        this.heuristic = heuristic;
+        this.maxNodes = maxNodes;
+        this.maxActionCost = problem.getMaxActionCost();
+    }
+
+    private Solution<S, A> search() {
+        S startState = problem.getStartState();
+        SmaNode<S, A> root = new SmaNode<>(startState, null, null, 0, -1, nextId++);
+        root.f = problem.evaluateHeuristic(heuristic, startState);
+        if (!problem.isGoalState(startState) && !fitsInMemory(root, root.f))
+            return null;
+        addToMemory(root);
+        maxNodesInMemory = nodesInMemory;
+
+        while (!open.isEmpty()) {
+            problem.doFrontierBookKeeping(open.size());
+            SmaNode<S, A> best = open.first();
+            if (best.openKey == Double.POSITIVE_INFINITY)
+                return null;
+
+            if (problem.isGoalState(best.state))
+                return new Solution<>(best.state, best.getActions(), best.pathCost);
+
+            if (best.successors == null)
+                initSuccessors(best);
+
+            SmaNode<S, A> child = generateNextSuccessor(best);
+            open.remove(best);
+            if (hasPendingSuccessors(best))
+                putInOpen(best);
+            backUp(best);
+
+            if (child != null) {
+                addToMemory(child);
+                while (nodesInMemory > maxNodes)
+                    forgetWorstLeaf(child);
+                maxNodesInMemory = Math.max(maxNodesInMemory, nodesInMemory);
+            }
+        }
+
+        return null;
+    }
+
+    private void initSuccessors(SmaNode<S, A> node) {
+        problem.countExpansion();
+        node.successors = new ArrayList<>(problem.getSuccessors(node.state));
+        node.children = newChildren(node.successors.size());
+        node.forgottenF = new double[node.children.length];
+        Arrays.fill(node.forgottenF, Double.NaN);
+    }
+
+    /**
+     * Adds the next never generated successor of node to the tree or, if all have been generated,
+     * regenerates the forgotten successor with the smallest backed-up f-value.
+     * @return the new child, or null if the successor is a repeated state on the current path
+     */
+    private SmaNode<S, A> generateNextSuccessor(SmaNode<S, A> node) {
+        int index;
+        double forgottenF = Double.NaN;
+        if (node.generatedCount < node.successors.size()) {
+            index = node.generatedCount++;
+        } else {
+            index = -1;
+            for (int i = 0; i < node.forgottenF.length; i++)
+                if (!Double.isNaN(node.forgottenF[i]) && (index < 0 || node.forgottenF[i] < node.forgottenF[index]))
+                    index = i;
+            forgottenF = node.forgottenF[index];
+            node.forgottenF[index] = Double.NaN;
+            node.forgottenCount--;
+            regeneratedCount++;
+        }
+
+        SuccessorInfo<S, A> successor = node.successors.get(index);
+        double childPathCost = node.pathCost + successor.cost;
+        if (node.isOnPath(successor.nextState) || isDominated(successor.nextState, childPathCost, node.depth + 1)) {
+            // a repeated state never leads to a better solution: remember it as a forgotten subtree with no solutions
+            node.forgottenF[index] = Double.POSITIVE_INFINITY;
+            node.forgottenCount++;
+            return null;
+        }
+
+        SmaNode<S, A> child = new SmaNode<>(successor.nextState, node, successor.action,
+                childPathCost, index, nextId++);
+        double h = problem.evaluateHeuristic(heuristic, child.state);
+        if (!problem.isGoalState(child.state) && !fitsInMemory(child, h)) {
+            // the path to a goal below this node cannot fit in memory
+            child.f = Double.POSITIVE_INFINITY;
+        } else {
+            double f = child.pathCost + h;
+            child.f = Math.max(node.f, f);
+            if (!Double.isNaN(forgottenF))
+                child.f = Math.max(child.f, forgottenF);
+        }
+
+        if (node.childrenInMemory == 0)
+            leaves.remove(node);
+        node.children[index] = child;
+        node.childrenInMemory++;
+        return child;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, A> SmaNode<S, A>[] newChildren(int length) {
+        return (SmaNode<S, A>[]) new SmaNode<?, ?>[length];
+    }
+
+    /**
+     * @param h the heuristic value of the state of node, which is not a goal
+     * @return false if a path to a goal below node certainly has more than maxNodes - 1 actions
+     */
+    private boolean fitsInMemory(SmaNode<S, A> node, double h) {
+        // at least one more action, and at least h / maxActionCost of them;
+        // the tolerance keeps rounding errors from cutting off a path that fits exactly
+        double actionsToGoal = Math.max(1, Math.ceil(h / maxActionCost - 1e-9));
+        return node.depth + actionsToGoal <= maxNodes - 1;
+    }
+
+    private boolean isDominated(S state, double pathCost, int depth) {
+        SmaNode<S, A> other = bestInMemory.get(state);
+        return other != null && other.pathCost <= pathCost && other.depth <= depth;
+    }
+
+    private static <S, A> boolean hasPendingSuccessors(SmaNode<S, A> node) {
+        return node.successors == null || node.generatedCount < node.successors.size() || node.forgottenCount > 0;
+    }
+
+    /**
+     * The priority of a node in the open set: its f-value while some successor has never been generated,
+     * otherwise the smallest f-value of the forgotten successors.
+     */
+    private static <S, A> double openKey(SmaNode<S, A> node) {
+        if (node.successors == null || node.generatedCount < node.successors.size())
+            return node.f;
+        double key = Double.POSITIVE_INFINITY;
+        for (double f : node.forgottenF)
+            if (!Double.isNaN(f))
+                key = Math.min(key, f);
+        return Math.max(node.f, key);
+    }
+
+    private void putInOpen(SmaNode<S, A> node) {
+        node.openKey = openKey(node);
+        open.add(node);
+    }
+
+    private void addToMemory(SmaNode<S, A> node) {
+        nodesInMemory++;
+        leaves.add(node);
+        SmaNode<S, A> other = bestInMemory.get(node.state);
+        if (other == null || node.pathCost < other.pathCost)
+            bestInMemory.put(node.state, node);
+        putInOpen(node);
+    }
+
+    /**
+     * Once all the successors of node have been generated, its f-value is the smallest f-value
+     * of its successors, in memory or forgotten. Changes are propagated to the ancestors.
+     */
+    private void backUp(SmaNode<S, A> node) {
+        for (; node != null; node = node.parent) {
+            if (node.generatedCount < node.successors.size())
+                return;
+
+            double f = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < node.children.length; i++) {
+                if (node.children[i] != null)
+                    f = Math.min(f, node.children[i].f);
+                else if (!Double.isNaN(node.forgottenF[i]))
+                    f = Math.min(f, node.forgottenF[i]);
+            }
+            if (f == node.f)
+                return;
+
+            updateF(node, f);
+        }
+    }
+
+    private void updateF(SmaNode<S, A> node, double f) {
+        boolean inOpen = open.remove(node);
+        boolean isLeaf = leaves.remove(node);
+        node.f = f;
+        if (inOpen)
+            putInOpen(node);
+        if (isLeaf)
+            leaves.add(node);
+    }
+
+    /**
+     * Forgets the worst leaf other than the root and the given node,
+     * and remembers its f-value in its parent.
+     */
+    private void forgetWorstLeaf(SmaNode<S, A> keep) {
+        SmaNode<S, A> worst = null;
+        for (SmaNode<S, A> leaf : leaves) {
+            if (leaf.parent != null && leaf != keep) {
+                worst = leaf;
+                break;
+            }
+        }
+        if (worst == null)
+            throw new RuntimeException("SMA* cannot free memory with a budget of " + maxNodes + " nodes");
+
+        leaves.remove(worst);
+        open.remove(worst);
+        bestInMemory.remove(worst.state, worst);
+        nodesInMemory--;
+        forgottenCount++;
+
+        SmaNode<S, A> parent = worst.parent;
+        parent.children[worst.index] = null;
+        parent.childrenInMemory--;
+        parent.forgottenF[worst.index] = worst.f;
+        parent.forgottenCount++;
+
+        open.remove(parent);
+        putInOpen(parent);
+        if (parent.childrenInMemory == 0)
+            leaves.add(parent);
+    }
+}
@@ -8,6 +8,7 @@
  */
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import static java.lang.System.out;
@@ -17,8 +18,16 @@ public class NPuzzleMain {
         out.println("usage: NPuzzleMain [<option>...]");
         out.println("options:");
         out.println("  -n <comma separated numbers> : A list of numbers separated by commas (without space) encoding initial configuration of the tiles");
-        out.println("  -f <strategy> : Search strategy, one of dfs, bfs, ucs, greedy or astar");
+        out.println("  -f <strategy> : Search strategy, one of dfs, bfs, ucs, greedy, astar, idastar, hda*, arastar, smastar, beam, extbfs, bibfs, biucs or biastar");
         out.println("  -h <heuristic> : Search heuristic to use (name of the class)");
+        out.println("  -j <threads> : Number of threads for hda*. The default is the number of available processors");
+        out.println("  -e <weight> : Initial heuristic weight for arastar. The default is 3");
+        out.println("  -b <millis> : Time budget for arastar, after which the best solution found is returned");
+        out.println("  -m <nodes> : Maximum number of nodes kept in memory by smastar. The default is 100000");
+        out.println("  -w <width> : Number of nodes kept in each layer by beam. The default is 100");
+        out.println("  -s : Print statistics on the phases of the search (dfs, bfs, ucs, greedy and astar)");
+        out.println("  -c <strategy>[:<heuristic>] : Also solve the puzzle with the given strategy and heuristic");
+        out.println("                                (by default the one of -h) and compare the expanded counts and costs");
         out.println("  --help : Print this message and exit");
         System.exit(1);
     }
@@ -28,6 +37,8 @@ public class NPuzzleMain {
         int[] numbers = {1, 4, 2, 3, 7, 5, 6, 8, 0};
         String function = "ucs";
         String heuristicName = "NullHeuristic";
+        String comparedSearch = null;
+        SearchOptions options = new SearchOptions();
 
         for (int i = 0 ; i < args.length ; ++i) {
             String s = args[i];
@@ -41,6 +52,27 @@ public class NPuzzleMain {
                 case "-h":
                     heuristicName = args[++i];
                     break;
+                case "-j":
+                    options.threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-e":
+                    options.initialWeight = Double.parseDouble(args[++i]);
+                    break;
+                case "-b":
+                    options.timeBudgetMillis = Long.parseLong(args[++i]);
+                    break;
+                case "-m":
+                    options.maxNodes = Integer.parseInt(args[++i]);
+                    break;
+                case "-w":
+                    options.beamWidth = Integer.parseInt(args[++i]);
+                    break;
+                case "-s":
+                    options.listener = new SearchStatistics<>();
+                    break;
+                case "-c":
+                    comparedSearch = args[++i];
+                    break;
                 case "--help":
                     usage();
                 default:
@@ -59,7 +91,28 @@ public class NPuzzleMain {
         SearchHeuristic<NPuzzleSearchState, NPuzzleAction> heuristic =
                 (SearchHeuristic) Class.forName(heuristicName).getConstructor().newInstance();
 
-        Solution<NPuzzleSearchState, NPuzzleAction> solution = GraphSearch.search(function, problem, heuristic, true);
+        Solution<NPuzzleSearchState, NPuzzleAction> solution = GraphSearch.search(function, problem, heuristic, options, true);
+
+        /*
+         Solve the same puzzle with another strategy and/or heuristic, for instance an optimal one, and compare.
+         */
+        if (comparedSearch != null) {
+            String[] parts = comparedSearch.split(":");
+            String comparedFunction = parts[0];
+            String comparedHeuristicName = parts.length > 1 ? parts[1] : heuristicName;
+
+            NPuzzleSearchProblem comparedProblem = new NPuzzleSearchProblem(numbers);
+            SearchHeuristic<NPuzzleSearchState, NPuzzleAction> comparedHeuristic = newHeuristic(comparedHeuristicName);
+            Solution<NPuzzleSearchState, NPuzzleAction> comparedSolution =
+                    GraphSearch.search(comparedFunction, comparedProblem, comparedHeuristic, options, true);
+
+            out.println("Comparison:");
+            printComparedRun(function + " with " + heuristicName, problem, solution);
+            printComparedRun(comparedFunction + " with " + comparedHeuristicName, comparedProblem, comparedSolution);
+            if (solution != null && comparedSolution != null && comparedSolution.pathCost > 0)
+                out.println("  cost ratio " + solution.pathCost / comparedSolution.pathCost);
+            out.println();
+        }
 
 
         /*
@@ -75,9 +128,24 @@ public class NPuzzleMain {
             currState = succState;
         }
     }
+
+    /**
+     * @return a new instance of the heuristic class
+     */
+    @SuppressWarnings("unchecked")
+    private static SearchHeuristic<NPuzzleSearchState, NPuzzleAction> newHeuristic(String className) throws Exception {
+        return (SearchHeuristic<NPuzzleSearchState, NPuzzleAction>) Class.forName(className).getConstructor().newInstance();
+    }
+
+    private static void printComparedRun(String name, NPuzzleSearchProblem problem,
+                                         Solution<NPuzzleSearchState, NPuzzleAction> solution) {
+        out.println("  " + name + ": expanded " + problem.getExpandedCount() +
+                ", solution cost " + (solution == null ? "none" : solution.pathCost));
+    }
 }
 
-class NPuzzleSearchProblem extends SearchProblem<NPuzzleSearchState, NPuzzleAction> {
+class NPuzzleSearchProblem extends SearchProblem<NPuzzleSearchState, NPuzzleAction>
+        implements ReversibleSearchProblem<NPuzzleSearchState, NPuzzleAction> {
 
     private int[][] startTiles;
     private int[][] goalTiles;
@@ -133,6 +201,26 @@ class NPuzzleSearchProblem extends SearchProblem<NPuzzleSearchState, NPuzzleActi
 
     }
 
+    /**
+     * Instance with an arbitrary goal configuration, see getReversedProblem.
+     */
+    NPuzzleSearchProblem(int[][] startTiles, int[][] goalTiles) {
+        this.size = startTiles.length;
+        this.startTiles = startTiles;
+        this.goalTiles = goalTiles;
+        this.startBlankLocation = findBlank(startTiles);
+    }
+
+    static Coordinate findBlank(int[][] tiles) {
+        for (int row = 0; row < tiles.length; row++) {
+            for (int col = 0; col < tiles.length; col++) {
+                if (tiles[row][col] == 0)
+                    return new Coordinate(col, row);
+            }
+        }
+        throw new IllegalArgumentException("No blank in tiles " + Arrays.deepToString(tiles));
+    }
+
     @Override
     public NPuzzleSearchState getStartState() {
         return new NPuzzleSearchState(startTiles, startBlankLocation);
@@ -200,10 +288,49 @@ class NPuzzleSearchProblem extends SearchProblem<NPuzzleSearchState, NPuzzleActi
         return 1;
     }
 
+    @Override
+    public boolean hasIntegerCosts() {
+        return true;
+    }
+
+    @Override
+    public double getMaxActionCost() {
+        return 1;
+    }
+
+    @Override
+    public StateCodec<NPuzzleSearchState> getStateCodec() {
+        return NPuzzleStateCodec.fits(size) ? new NPuzzleStateCodec(size) : null;
+    }
+
     public int[][] getGoalTiles() {
         return goalTiles;
     }
 
+    @Override
+    public Collection<NPuzzleSearchState> getGoalStates() {
+        return List.of(new NPuzzleSearchState(goalTiles, findBlank(goalTiles)));
+    }
+
+    /**
+     * Moving the blank is reversible: the predecessor via an action is the successor
+     * via the reverse action.
+     */
+    @Override
+    public Collection<SuccessorInfo<NPuzzleSearchState, NPuzzleAction>> getPredecessors(NPuzzleSearchState state) {
+        List<SuccessorInfo<NPuzzleSearchState, NPuzzleAction>> predecessors = new ArrayList<>();
+        for (NPuzzleAction action : getActions(state)) {
+            NPuzzleSearchState predecessor = getSuccessor(state, action);
+            predecessors.add(new SuccessorInfo<>(predecessor, action.reverse(), getCost(predecessor, action.reverse())));
+        }
+        return predecessors;
+    }
+
+    @Override
+    public SearchProblem<NPuzzleSearchState, NPuzzleAction> getReversedProblem() {
+        return new NPuzzleSearchProblem(goalTiles, startTiles);
+    }
+
     public int getSize() {
         return size;
     }
@@ -230,6 +357,19 @@ class NPuzzleSearchState implements SearchState {
         return blankLocation;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof NPuzzleSearchState))
+            return false;
+
+        return Arrays.deepEquals(tiles, ((NPuzzleSearchState) o).tiles);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(tiles);
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -247,35 +387,87 @@ class NPuzzleSearchState implements SearchState {
     }
 }
 
+/**
+ * Encodes an N-puzzle state as a long with 4 bits per tile (row by row),
+ * which works for boards of up to 4x4 tiles, i.e., up to the 15-puzzle.
+ */
+class NPuzzleStateCodec implements StateCodec<NPuzzleSearchState> {
+    private final int size;
+
+    NPuzzleStateCodec(int size) {
+        this.size = size;
+    }
+
+    static boolean fits(int size) {
+        return size * size * 4 <= Long.SIZE;
+    }
+
+    @Override
+    public long encode(NPuzzleSearchState state) {
+        long key = 0;
+        for (int[] row : state.getTiles()) {
+            for (int tile : row) {
+                key = (key << 4) | tile;
+            }
+        }
+        return key;
+    }
+
+    @Override
+    public NPuzzleSearchState decode(long key) {
+        int[][] tiles = new int[size][size];
+        for (int row = size - 1; row >= 0; row--) {
+            for (int col = size - 1; col >= 0; col--) {
+                tiles[row][col] = (int) (key & 0xF);
+                key >>>= 4;
+            }
+        }
+        return new NPuzzleSearchState(tiles, NPuzzleSearchProblem.findBlank(tiles));
+    }
+}
+
 enum NPuzzleAction implements Action {
     /**
      * Action to move the blank
      */
     UP {
+        public NPuzzleAction reverse() {
+            return NPuzzleAction.DOWN;
+        }
         public Coordinate toVector() {
             return new Coordinate(0,-1);
         }
         public String toString() { return "Up"; }
     },
     RIGHT {
+        public NPuzzleAction reverse() {
+            return NPuzzleAction.LEFT;
+        }
         public Coordinate toVector() {
             return new Coordinate(1,0);
         }
         public String toString() { return "Right"; }
     },
     DOWN {
+        public NPuzzleAction reverse() {
+            return NPuzzleAction.UP;
+        }
         public Coordinate toVector() {
             return new Coordinate(0,1);
         }
         public String toString() { return "Down"; }
     },
     LEFT {
+        public NPuzzleAction reverse() {
+            return NPuzzleAction.RIGHT;
+        }
         public Coordinate toVector() {
             return new Coordinate(-1,0);
         }
         public String toString() { return "Left"; }
     };
 
+    public abstract NPuzzleAction reverse();
     public abstract Coordinate toVector();
 
 }
@@ -285,7 +477,7 @@ class NPuzzleHeuristic implements SearchHeuristic<NPuzzleSearchState,NPuzzleActi
     public NPuzzleHeuristic() {}
 
     @Override
-    public Double value(NPuzzleSearchState state, SearchProblem<NPuzzleSearchState, NPuzzleAction> problem) {
+    public double value(NPuzzleSearchState state, SearchProblem<NPuzzleSearchState, NPuzzleAction> problem) {
 
         if (problem instanceof NPuzzleSearchProblem) {
             
@@ -25,6 +25,7 @@ class PacmanSearchAgent implements PacmanAgent {
     String searchProblemName;
     String heuristicName;
     String searchStrategy;
+    SearchOptions searchOptions;
 
     boolean searched = false;
     List<PacmanAction> actions;
@@ -35,13 +36,15 @@ class PacmanSearchAgent implements PacmanAgent {
 
     public PacmanSearchAgent(Game game,
                              Pacman pacman,
-                             String problemName, String heuristicName, String strategy) {
+                             String problemName, String heuristicName, String strategy,
+                             SearchOptions options) {
         this.game = game;
         this.pacman = pacman;
 
         this.searchProblemName = problemName;
         this.heuristicName = heuristicName;
         this.searchStrategy = strategy;
+        this.searchOptions = options;
     }
 
     public void search(String problem, String heuristicName, String function) {
@@ -52,6 +55,8 @@ class PacmanSearchAgent implements PacmanAgent {
              */
             SearchProblem<SearchState, PacmanAction> searchProblem =
                     (SearchProblem) Class.forName(problem).getConstructor(Maze.class).newInstance(game.maze);
+            // the GUI shows the expanded states
+            searchProblem.setRecordVisited(true);
 
             /*
              Instantiate the heuristic. By default it is the trivial heuristic (NullHeuristic), that always returns 0.
@@ -67,10 +72,29 @@ class PacmanSearchAgent implements PacmanAgent {
                 - greedy for greedy search
                 - ucs for uniform cost search
                 - astar for A* search
+                - idastar for iterative-deepening A* search
+                - hda* for hash-distributed (parallel) A* search
+                - bibfs, biucs and biastar for bidirectional BFS, UCS and A* search
+                - jps for Jump Point Search (PacmanPositionSearchProblem only)
+                - arastar for anytime repairing A* search, which runs in the background
+                - smastar for memory-bounded A* search
+                - beam for beam search, keeping a bounded number of nodes per layer
+                - extbfs for breadth first search keeping the layers on disk
              */
-            Solution<SearchState, PacmanAction> solution = GraphSearch.search(function, searchProblem, heuristic, true);
+            if (function.equals("arastar")) {
+                searched = true;
+                searchInBackground(searchProblem, heuristic);
+                return;
+            }
+
+            SearchResult<SearchState, PacmanAction> result =
+                    GraphSearch.searchWithLimits(function, searchProblem, heuristic, searchOptions, true);
 
-            actions = solution.actions;
+            /*
+             If the search has been aborted, follow the path to the most promising node reached.
+             If there is no solution, stay in place.
+             */
+            actions = result.getActions();
             performedActionCount = 0;
 
             searched = true;
@@ -82,12 +106,42 @@ class PacmanSearchAgent implements PacmanAgent {
 
 }
 
+    /**
+     * Runs the anytime search in a background thread, so that the game is not blocked.
+     * Pacman starts moving as soon as the first plan is found. A better plan found later
+     * replaces it only if Pacman has not moved yet.
+     */
+    private void searchInBackground(SearchProblem<SearchState, PacmanAction> searchProblem,
+                                    SearchHeuristic<SearchState, PacmanAction> heuristic) {
+        AnytimeSolutionListener<SearchState, PacmanAction> listener = (solution, bound) -> offerPlan(solution.actions);
+        searchOptions.anytimeListener = listener;
+
+        Thread thread = new Thread(() -> {
+            GraphSearch.searchWithLimits("arastar", searchProblem, heuristic, searchOptions, true);
+            // an immutable copy, published to the game thread through the volatile field of the game
+            game.setVisitedList(List.copyOf(searchProblem.getVisitedList()));
+        }, "anytime-search");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private synchronized void offerPlan(List<PacmanAction> plan) {
+        if (performedActionCount == 0) {
+            actions = plan;
+        }
+    }
+
     @Override
-    public void doTick() {
+    public synchronized void doTick() {
         if (!searched) {
             search(searchProblemName, heuristicName, searchStrategy);
         }
 
+        // the anytime search has not found a plan yet
+        if (actions == null) {
+            return;
+        }
+
         if (performedActionCount < actions.size()) {
             if ( ticksAfterLastAction >= delay ) {
                 pacman.tick();
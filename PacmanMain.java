@@ -11,8 +11,11 @@ import javax.swing.Action;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import static java.lang.System.out;
@@ -25,9 +28,34 @@ public class PacmanMain {
         out.println("  -l <mazeName> : Name of the layout, see 'mazes' folder");
         out.println("  -a <agentType>: Type of the pacman agent, keyboard or search. The default is PacmanKeyboardAgent");
         out.println("  -p <searchProblem> : Name of the search problem class");
-        out.println("  -f <strategy> : Search strategy, one of dfs, bfs, ucs, greedy or astar");
-        out.println("  -h <heuristic> : Search heuristic to use (name of the class)");
+        out.println("  -f <strategy> : Search strategy, one of dfs, bfs, ucs, greedy, astar, idastar, hda*, arastar, smastar, beam, extbfs, bibfs, biucs, biastar, jps or hpa");
+        out.println("  -h <heuristic> : Search heuristic to use (name of the class), for instance ManhattanDistanceHeuristic,");
+        out.println("                   or LandmarkHeuristic, which accounts for the walls");
+        out.println("  -j <threads> : Number of threads for hda*. The default is the number of available processors");
+        out.println("  -e <weight> : Initial heuristic weight for arastar. The default is 3");
+        out.println("  -b <millis> : Time budget for arastar, after which the best solution found is returned");
+        out.println("  -m <nodes> : Maximum number of nodes kept in memory by smastar. The default is 100000");
+        out.println("  -w <width> : Number of nodes kept in each layer by beam. The default is 100");
+        out.println("  -u <size> : Width and height of the clusters of hpa. The default is 10");
+        out.println("  -o : Shortcut the paths of hpa with straight lines");
+        out.println("  -r : Search over the junctions of the maze, following each corridor in a single move.");
+        out.println("       bfs and dfs then count corridors instead of actions. Not used by jps, hpa, bibfs, biucs and biastar");
+        out.println("  -x <expansions> : Abort the search of the pacman agent after this many expansions");
+        out.println("  -d <millis> : Abort the search of the pacman agent after this many milliseconds");
+        out.println("  -s : Print statistics on the phases of the search (dfs, bfs, ucs, greedy and astar). Not with -q");
         out.println("  -t : Run textual version in terminal, without graphics. Requires a search agent");
+        out.println("  -c <strategy>[:<heuristic>] : With -t, also solve the problem with the given strategy and heuristic");
+        out.println("                                (by default the one of -h) and compare the expanded counts and costs");
+        out.println("  -q <count>[:<threads>] : With -t, instead of solving the problem, solve count path queries between random");
+        out.println("                           locations of the maze concurrently, with the given number of threads");
+        out.println("                           (by default one virtual thread per query, if supported), and report the latencies");
+        out.println("  -g <planner> : How chasing ghosts plan their moves: astar to search from scratch at every move (the default),");
+        out.println("                 dstar to replan incrementally with Moving Target D* Lite,");
+        out.println("                 table to read the moves from the table of all maze distances,");
+        out.println("                 flow to share one breadth-first search from pacman per tick between all the ghosts");
+        out.println("  -y <directory> : Directory where the tables of maze distances (used by -g table and MazeDistanceHeuristic)");
+        out.println("                   are stored, so that they are only computed once per layout");
+        out.println("  -k <count> : Number of ghosts chasing pacman, the others move randomly. The default is 1");
         out.println("  -z <scale> :  Scaling coefficient for graphics. Default value is 2.");
         out.println("  --help : Print this message and exit");
         System.exit(1);
@@ -41,7 +69,12 @@ public class PacmanMain {
         String function = "greedy";
         String heuristicName = "ManhattanDistanceHeuristic";
         boolean textual = false;
+        String comparedSearch = null;
+        int batchQueries = 0;
+        String ghostPlanner = "astar";
+        int chasingGhosts = 1;
         double scale = 1;
+        SearchOptions options = new SearchOptions();
 
         for (int i = 0 ; i < args.length ; ++i) {
             String s = args[i];
@@ -61,9 +94,64 @@ public class PacmanMain {
                 case "-h":
                     heuristicName = args[++i];
                     break;
+                case "-j":
+                    options.threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-e":
+                    options.initialWeight = Double.parseDouble(args[++i]);
+                    break;
+                case "-b":
+                    options.timeBudgetMillis = Long.parseLong(args[++i]);
+                    break;
+                case "-m":
+                    options.maxNodes = Integer.parseInt(args[++i]);
+                    break;
+                case "-w":
+                    options.beamWidth = Integer.parseInt(args[++i]);
+                    break;
+                case "-u":
+                    options.clusterSize = Integer.parseInt(args[++i]);
+                    break;
+                case "-o":
+                    options.smoothPath = true;
+                    break;
+                case "-r":
+                    options.contractCorridors = true;
+                    break;
+                case "-x":
+                    if (options.limits == null)
+                        options.limits = new SearchLimits();
+                    options.limits.maxExpansions = Long.parseLong(args[++i]);
+                    break;
+                case "-d":
+                    if (options.limits == null)
+                        options.limits = new SearchLimits();
+                    options.limits.timeLimitMillis = Long.parseLong(args[++i]);
+                    break;
+                case "-s":
+                    options.listener = new SearchStatistics<>();
+                    break;
                 case "-t":
                     textual = true;
                     break;
+                case "-c":
+                    comparedSearch = args[++i];
+                    break;
+                case "-q":
+                    String[] batch = args[++i].split(":");
+                    batchQueries = Integer.parseInt(batch[0]);
+                    if (batch.length > 1)
+                        options.batchThreads = Integer.parseInt(batch[1]);
+                    break;
+                case "-g":
+                    ghostPlanner = args[++i];
+                    break;
+                case "-y":
+                    MazeDistanceTable.storageDirectory = Paths.get(args[++i]);
+                    break;
+                case "-k":
+                    chasingGhosts = Integer.parseInt(args[++i]);
+                    break;
                 case "-z":
                     scale = Double.parseDouble(args[++i]);
                     break;
@@ -75,7 +163,8 @@ public class PacmanMain {
         }
 
 
-        startNewPacman(mazeFile, pacmanAgent, problem, function, heuristicName, textual, scale);
+        startNewPacman(mazeFile, pacmanAgent, problem, function, heuristicName, options, textual, comparedSearch,
+                batchQueries, ghostPlanner, chasingGhosts, scale);
 
     }
 
@@ -84,7 +173,12 @@ public class PacmanMain {
                                        String problem,
                                        String function,
                                        String heuristicName,
+                                       SearchOptions options,
                                        boolean textual,
+                                       String comparedSearch,
+                                       int batchQueries,
+                                       String ghostPlanner,
+                                       int chasingGhosts,
                                        double scale) throws Exception {
         Maze maze = MazeParser.parseMaze("mazes/" + mazeSelected + ".lay");
 
@@ -94,6 +188,11 @@ public class PacmanMain {
                 throw new RuntimeException("Textual version works only for PacmanSearchAgent");
             }
 
+            if (batchQueries > 0) {
+                solveBatch(maze, function, heuristicName, options, batchQueries);
+                return;
+            }
+
             /*
              Instantiate the search problem.
              For instance, PositionSearchProblem or CornersProblem or FoodSearchProblem
@@ -114,8 +213,41 @@ public class PacmanMain {
                 - bfs for breadth first search
                 - greedy for greedy search
                 - astar for A* search
+                - idastar for iterative-deepening A* search
+                - hda* for hash-distributed (parallel) A* search
+                - arastar for anytime repairing A* search
+                - smastar for memory-bounded A* search
+                - beam for beam search, keeping a bounded number of nodes per layer
+                - extbfs for breadth first search keeping the layers on disk
+                - bibfs, biucs and biastar for bidirectional BFS, UCS and A* search
+                - jps for Jump Point Search (PacmanPositionSearchProblem only)
+             */
+            SearchResult<SearchState, PacmanAction> result =
+                    GraphSearch.searchWithLimits(function, searchProblem, heuristic, options, true);
+            Solution<SearchState, PacmanAction> solution = result.solution;
+            if (result.status != SearchResult.Status.SOLVED)
+                out.println("Search result: " + result);
+
+            /*
+             Solve the same problem with another strategy and/or heuristic, and compare.
              */
-            Solution<SearchState, PacmanAction> solution = GraphSearch.search(function, searchProblem, heuristic, true);
+            if (comparedSearch != null) {
+                String[] parts = comparedSearch.split(":");
+                String comparedFunction = parts[0];
+                String comparedHeuristicName = parts.length > 1 ? parts[1] : heuristicName;
+
+                SearchProblem<SearchState, PacmanAction> comparedProblem = newProblem(problem, maze);
+                SearchHeuristic<SearchState, PacmanAction> comparedHeuristic = newHeuristic(comparedHeuristicName);
+                Solution<SearchState, PacmanAction> comparedSolution =
+                        GraphSearch.searchWithLimits(comparedFunction, comparedProblem, comparedHeuristic, options, true).solution;
+
+                out.println("Comparison:");
+                printComparedRun(function + " with " + heuristicName, searchProblem, solution);
+                printComparedRun(comparedFunction + " with " + comparedHeuristicName, comparedProblem, comparedSolution);
+                if (solution != null && comparedSolution != null && comparedSolution.pathCost > 0)
+                    out.println("  cost ratio " + solution.pathCost / comparedSolution.pathCost);
+                out.println();
+            }
 
             /*
              Textual animation of Pacman moves.
@@ -123,6 +255,9 @@ public class PacmanMain {
             if (solution != null) {
                 out.println("Solution:");
                 out.println(maze.toString(solution.actions));
+            } else if (result.best != null) {
+                out.println("Path to the most promising state reached:");
+                out.println(maze.toString(result.getActions()));
             }
         }
         // GUI version
@@ -139,7 +274,7 @@ public class PacmanMain {
             // Initialise the pacman agent
             PacmanAgent pacmanAgent;
             if (pacmanAgentClass.equals("PacmanSearchAgent")) {
-                pacmanAgent = new PacmanSearchAgent(pacmanGame, pacman, problem, heuristicName, function);
+                pacmanAgent = new PacmanSearchAgent(pacmanGame, pacman, problem, heuristicName, function, options);
             }
             else if (pacmanAgentClass.equals("PacmanKeyboardAgent")) {
                 pacmanAgent = new PacmanKeyboardAgent(pacmanGame, gamePanel, pacman);
@@ -152,12 +287,13 @@ public class PacmanMain {
 
             // Initialise the ghost agents
             java.util.List<GhostAgent> ghostAgents = new LinkedList<>();
-            if (ghosts.size() > 0) {
-                Iterator<Ghost> iter = ghosts.iterator();
-                ghostAgents.add(new BlinkyGhostAgent(pacmanGame, iter.next(), pacman));
-                while (iter.hasNext()) {
-                    ghostAgents.add(new RandomGhostAgent(pacmanGame, iter.next()));
-                }
+            // every chasing ghost has its own planner
+            Iterator<Ghost> iter = ghosts.iterator();
+            for (int i = 0; i < chasingGhosts && iter.hasNext(); i++) {
+                ghostAgents.add(new BlinkyGhostAgent(pacmanGame, iter.next(), pacman, ghostPlanner));
+            }
+            while (iter.hasNext()) {
+                ghostAgents.add(new RandomGhostAgent(pacmanGame, iter.next()));
             }
 
             JFrame pacMan = new JFrame("Pacman");
@@ -171,6 +307,57 @@ public class PacmanMain {
             gameManager.start();
         }
     }
+
+    /**
+     * Solves path queries between random open locations of the maze as a batch (see BatchSearch).
+     * All the queries share the maze.
+     */
+    private static void solveBatch(Maze maze, String function, String heuristicName, SearchOptions options,
+                                   int queries) throws Exception {
+        java.util.List<Coordinate> open = new ArrayList<>();
+        for (int y = 0; y < maze.getHeight(); y++)
+            for (int x = 0; x < maze.getWidth(); x++)
+                if (!maze.isWall(x, y))
+                    open.add(new Coordinate(x, y));
+
+        Random random = new Random(queries);
+        java.util.List<PacmanPositionSearchProblem> problems = new ArrayList<>();
+        for (int i = 0; i < queries; i++)
+            problems.add(new PacmanPositionSearchProblem(maze,
+                    open.get(random.nextInt(open.size())), open.get(random.nextInt(open.size()))));
+
+        SearchHeuristic<PacmanPositionSearchState, PacmanAction> heuristic = newHeuristic(heuristicName);
+        BatchReport report = new BatchReport();
+        long unsolved = BatchSearch.solve(function, problems, heuristic, options, report)
+                .filter(result -> result.result.status != SearchResult.Status.SOLVED)
+                .count();
+
+        out.println("Solved " + (queries - unsolved) + " of " + queries + " queries with " + function +
+                " and heuristic " + heuristicName);
+        out.print(report);
+    }
+
+    /**
+     * @return a new instance of the search problem class, on the maze
+     */
+    @SuppressWarnings("unchecked")
+    private static <S, A> SearchProblem<S, A> newProblem(String className, Maze maze) throws Exception {
+        return (SearchProblem<S, A>) Class.forName(className).getConstructor(Maze.class).newInstance(maze);
+    }
+
+    /**
+     * @return a new instance of the heuristic class
+     */
+    @SuppressWarnings("unchecked")
+    private static <S, A> SearchHeuristic<S, A> newHeuristic(String className) throws Exception {
+        return (SearchHeuristic<S, A>) Class.forName(className).getConstructor().newInstance();
+    }
+
+    private static void printComparedRun(String name, SearchProblem<SearchState, PacmanAction> problem,
+                                         Solution<SearchState, PacmanAction> solution) {
+        out.println("  " + name + ": expanded " + problem.getExpandedCount() +
+                ", solution cost " + (solution == null ? "none" : solution.pathCost));
+    }
 }
 
 class PacmanMazePanel extends JPanel {
@@ -293,12 +480,14 @@ class PacmanMazePanel extends JPanel {
      * Brighter colours correspond to the states expanded earlier.     *
      */
     private void drawSearchVisitedStates(Graphics g) {
-        if (game.getVisitedList() != null) {
-            int length = game.getVisitedList().size();
+        // read once, the search agent can replace it in the meantime
+        java.util.List<SearchState> visitedList = game.getVisitedList();
+        if (visitedList != null) {
+            int length = visitedList.size();
             double delta = 1.0 / (length + 1.0);
 
             for(int i=0; i<length; i++) {
-                Coordinate cell = ((PacmanSearchState) game.getVisitedList().get(i)).pacmanLocation;
+                Coordinate cell = ((PacmanSearchState) visitedList.get(i)).pacmanLocation;
                 g.setColor(
                         new Color((int) (Color.RED.getRed() * (1 - delta * (i+1))), 0, 0));
                 g.fillRect(getLeftMostPixel(cell.x), getTopMostPixel(cell.y), (int)(step * scale), (int)(step * scale));
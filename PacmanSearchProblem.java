@@ -7,7 +7,11 @@
  * developed at UC Berkeley http://ai.berkeley.edu.
  */
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public abstract class PacmanSearchProblem<S extends PacmanSearchState> extends SearchProblem<S, PacmanAction> {
     protected final Maze maze;
@@ -29,6 +33,19 @@ public abstract class PacmanSearchProblem<S extends PacmanSearchState> extends S
         }
         return 1;
     }
+
+    @Override
+    public boolean hasIntegerCosts() {
+        return true;
+    }
+
+    /**
+     * Actions into a wall are never successors, the others cost 1.
+     */
+    @Override
+    public double getMaxActionCost() {
+        return 1;
+    }
 }
 
 
@@ -38,7 +55,8 @@ public abstract class PacmanSearchProblem<S extends PacmanSearchState> extends S
  * You do not need to modify this class.
  * You can study it to understand how to implement other search problems.
  */
-class PacmanPositionSearchProblem extends PacmanSearchProblem<PacmanPositionSearchState> {
+class PacmanPositionSearchProblem extends PacmanSearchProblem<PacmanPositionSearchState>
+        implements ReversibleSearchProblem<PacmanPositionSearchState, PacmanAction> {
 
     private final Coordinate goalLocation;
     private final Coordinate startLocation;
@@ -79,6 +97,44 @@ class PacmanPositionSearchProblem extends PacmanSearchProblem<PacmanPositionSear
     public Coordinate getGoalLocation() {
         return goalLocation;
     }
+
+    @Override
+    public StateCodec<PacmanPositionSearchState> getStateCodec() {
+        return PacmanPositionStateCodec.INSTANCE;
+    }
+
+    /**
+     * The solutions only depend on the walls of the maze, the start and the goal.
+     */
+    @Override
+    public Object getCacheKey(PacmanPositionSearchState state) {
+        return Arrays.asList(getClass().getName(), maze.getWidth(), maze.getHeight(), maze.getLayoutHash(),
+                state.getPacmanLocation(), goalLocation);
+    }
+
+    @Override
+    public Collection<PacmanPositionSearchState> getGoalStates() {
+        return List.of(new PacmanPositionSearchState(goalLocation));
+    }
+
+    /**
+     * Moving is reversible: if Pacman can move from a cell to a neighbouring one,
+     * it can also move back.
+     */
+    @Override
+    public Collection<SuccessorInfo<PacmanPositionSearchState, PacmanAction>> getPredecessors(PacmanPositionSearchState state) {
+        List<SuccessorInfo<PacmanPositionSearchState, PacmanAction>> predecessors = new ArrayList<>();
+        for (PacmanAction action : getActions(state)) {
+            PacmanPositionSearchState predecessor = new PacmanPositionSearchState(state.getPacmanLocation().add(action.toVector()));
+            predecessors.add(new SuccessorInfo<>(predecessor, action.reverse(), getCost(predecessor, action.reverse())));
+        }
+        return predecessors;
+    }
+
+    @Override
+    public SearchProblem<PacmanPositionSearchState, PacmanAction> getReversedProblem() {
+        return new PacmanPositionSearchProblem(maze, startLocation, goalLocation);
+    }
 }
 
 /**
@@ -92,11 +148,16 @@ class PacmanFoodSearchProblem extends PacmanSearchProblem<PacmanFoodSearchState>
 
     private final List<Coordinate> foodCoordinates;
 
+    private final PacmanFoodStateCodec codec;
+
     public PacmanFoodSearchProblem(Maze maze) {
         super(maze);
         this.startLocation = maze.getInitialPacmanLocation();
 
         this.foodCoordinates = maze.getFoodCoordinates();
+
+        this.codec = PacmanFoodStateCodec.fits(maze, foodCoordinates) ?
+                new PacmanFoodStateCodec(maze, foodCoordinates) : null;
     }
 
     @Override
@@ -131,6 +192,14 @@ class PacmanFoodSearchProblem extends PacmanSearchProblem<PacmanFoodSearchState>
         return new PacmanFoodSearchState(nextLocation,
                 this.getNextFoodCoordinates(nextLocation, state.getFoodCoordinates()));
     }
+
+    /**
+     * @return a codec if the pacman location and the remaining food fit in a long, null otherwise
+     */
+    @Override
+    public StateCodec<PacmanFoodSearchState> getStateCodec() {
+        return codec;
+    }
 }
 
 /**************************************************************
@@ -217,6 +286,77 @@ class PacmanFoodSearchState extends PacmanSearchState {
     }
 }
 
+/**
+ * Encodes a pacman location as a long: x in the upper 32 bits and y in the lower 32 bits.
+ */
+class PacmanPositionStateCodec implements StateCodec<PacmanPositionSearchState> {
+    static final PacmanPositionStateCodec INSTANCE = new PacmanPositionStateCodec();
+
+    @Override
+    public long encode(PacmanPositionSearchState state) {
+        Coordinate location = state.getPacmanLocation();
+        return ((long) location.x << 32) | (location.y & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public PacmanPositionSearchState decode(long key) {
+        return new PacmanPositionSearchState(new Coordinate((int) (key >>> 32), (int) key));
+    }
+}
+
+/**
+ * Encodes a food search state as a long: the lowest bits hold the index of the pacman cell
+ * (y * width + x), followed by one bit for every food dot of the start state that is still left.
+ * Only usable when the number of cells and food dots is small enough, see fits.
+ */
+class PacmanFoodStateCodec implements StateCodec<PacmanFoodSearchState> {
+    private final int width;
+    private final int locationBits;
+    private final Map<Coordinate, Integer> foodIndex = new HashMap<>();
+    private final List<Coordinate> foodCoordinates;
+
+    PacmanFoodStateCodec(Maze maze, List<Coordinate> foodCoordinates) {
+        this.width = maze.getWidth();
+        this.locationBits = locationBits(maze);
+        this.foodCoordinates = new ArrayList<>(foodCoordinates);
+        for (Coordinate food : foodCoordinates) {
+            foodIndex.put(food, foodIndex.size());
+        }
+    }
+
+    static boolean fits(Maze maze, List<Coordinate> foodCoordinates) {
+        return locationBits(maze) + foodCoordinates.size() <= Long.SIZE;
+    }
+
+    private static int locationBits(Maze maze) {
+        return Long.SIZE - Long.numberOfLeadingZeros((long) maze.getWidth() * maze.getHeight() - 1);
+    }
+
+    @Override
+    public long encode(PacmanFoodSearchState state) {
+        Coordinate location = state.getPacmanLocation();
+        long key = (long) location.y * width + location.x;
+        for (Coordinate food : state.getFoodCoordinates()) {
+            key |= 1L << (locationBits + foodIndex.get(food));
+        }
+        return key;
+    }
+
+    /**
+     * The food is listed in the order of the start state, like in the states built by PacmanFoodSearchProblem.
+     */
+    @Override
+    public PacmanFoodSearchState decode(long key) {
+        int cell = (int) (key & ((1L << locationBits) - 1));
+        List<Coordinate> food = new ArrayList<>();
+        for (int i = 0; i < foodCoordinates.size(); i++) {
+            if ((key & (1L << (locationBits + i))) != 0)
+                food.add(foodCoordinates.get(i));
+        }
+        return new PacmanFoodSearchState(new Coordinate(cell % width, cell / width), food);
+    }
+}
+
 /**************************************************************
  ************           Search actions            *************
  **************************************************************/
@@ -297,7 +437,7 @@ class ManhattanDistanceHeuristic implements SearchHeuristic<PacmanPositionSearch
     public ManhattanDistanceHeuristic() {}
 
     @Override
-    public Double value(PacmanPositionSearchState state, SearchProblem<PacmanPositionSearchState, PacmanAction> problem) {
+    public double value(PacmanPositionSearchState state, SearchProblem<PacmanPositionSearchState, PacmanAction> problem) {
 
         if (problem instanceof PacmanPositionSearchProblem) {
             
@@ -320,7 +460,7 @@ class PacmanFoodHeuristic implements SearchHeuristic<PacmanFoodSearchState,Pacma
     public PacmanFoodHeuristic() {}
 
     @Override
-    public Double value(PacmanFoodSearchState state, SearchProblem<PacmanFoodSearchState, PacmanAction> problem) {
+    public double value(PacmanFoodSearchState state, SearchProblem<PacmanFoodSearchState, PacmanAction> problem) {
 
         if (problem instanceof PacmanFoodSearchProblem) {
 
@@ -0,0 +1,286 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains a parallel version of A* search, called by GraphSearch.search.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.System.out;
+
+class ParallelSearch {
+
+    /**
+     * Hash-distributed A* (HDA*).
+     *
+     * Every state is owned by one of the worker threads, chosen by the hash of the state.
+     * Each worker has its own open list and its own table of best path costs, and only expands
+     * the states it owns. Generated nodes are sent to the mailbox of their owner, which is a
+     * lock-free queue.
+     *
+     * Since the workers do not expand nodes in the global order of f-values, a goal node found
+     * first is not necessarily optimal. It becomes the incumbent solution, and the workers keep
+     * expanding the nodes whose f-value is below its cost. Search terminates when no node
+     * is left, neither in the open lists nor in the mailboxes. This is detected with a counter
+     * of outstanding nodes, incremented when a node is sent and decremented once it has been
+     * processed, i.e., expanded or discarded.
+     *
+     * With an admissible heuristic the returned solution is optimal.
+     * The problem and the heuristic must be safe to use from several threads.
+     */
+    static <S, A> Solution<S, A> hashDistributedAStarSearch(SearchProblem<S, A> problem,
+                                                           SearchHeuristic<S, A> heuristic,
+                                                           int threadCount,
+                                                           boolean print) {
+        if (heuristic == null)
+            heuristic = new NullHeuristic<>();
+        if (threadCount < 1)
+            throw new IllegalArgumentException("Expecting a positive number of threads, got " + threadCount);
+
+        Coordinator<S, A> coordinator = new Coordinator<>(problem, heuristic, threadCount);
+
+        S startState = problem.getStartState();
+        Node<S, A> startNode = new Node<>(startState, null, null, 0, problem.evaluateHeuristic(heuristic, startState));
+        coordinator.send(startNode);
+
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (Worker<S, A> worker : coordinator.workers) {
+            Thread thread = new Thread(worker, "hda-worker-" + worker.id);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                coordinator.fail(e);
+                Thread.currentThread().interrupt();
+            }
+        }
+        long wallTime = System.nanoTime() - start;
+
+        // Book keeping is done once all the workers have finished
+        long busyTime = 0;
+        for (Worker<S, A> worker : coordinator.workers) {
+            problem.expandedCount += worker.expanded;
+            problem.heuristicEvaluationCount += worker.heuristicEvaluations;
+            busyTime += worker.busyTime;
+            if (print)
+                out.println("Thread " + worker.id + ": expanded " + worker.expanded +
+                        ", generated " + worker.generated +
+                        ", busy " + (double) worker.busyTime / 1e9 + "s");
+        }
+        if (print && wallTime > 0)
+            out.println("Speedup over a single thread doing the same work: " +
+                    String.format("%.2f", (double) busyTime / wallTime));
+
+        Throwable failure = coordinator.failure.get();
+        if (failure instanceof SearchAbortedException)
+            throw (SearchAbortedException) failure;
+        if (failure != null)
+            throw new RuntimeException("HDA* worker failed", failure);
+
+        Node<S, A> goalNode = coordinator.incumbent.get();
+        if (goalNode == null)
+            return null;
+        return new Solution<>(goalNode.state, goalNode.getActions(), goalNode.pathCost);
+    }
+
+    /**
+     * State shared by the workers.
+     */
+    private static class Coordinator<S, A> {
+        final SearchProblem<S, A> problem;
+        final SearchHeuristic<S, A> heuristic;
+        final List<Worker<S, A>> workers = new ArrayList<>();
+
+        // nodes that have been sent but not yet expanded or discarded
+        final AtomicLong outstanding = new AtomicLong();
+        // the best goal node found so far
+        final AtomicReference<Node<S, A>> incumbent = new AtomicReference<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // expansions of all the workers, counted only to check the limits of the search
+        final AtomicLong expansions = new AtomicLong();
+
+        Coordinator(SearchProblem<S, A> problem, SearchHeuristic<S, A> heuristic, int threadCount) {
+            this.problem = problem;
+            this.heuristic = heuristic;
+            for (int i = 0; i < threadCount; i++) {
+                workers.add(new Worker<>(i, this));
+            }
+        }
+
+        /**
+         * Sends a node to the worker owning its state.
+         */
+        void send(Node<S, A> node) {
+            int hash = node.state.hashCode();
+            hash ^= hash >>> 16;
+            outstanding.incrementAndGet();
+            workers.get(Math.floorMod(hash * 0x9E3779B9, workers.size())).mailbox.add(node);
+        }
+
+        /**
+         * Marks nodes as processed.
+         */
+        void done(long count) {
+            outstanding.addAndGet(-count);
+        }
+
+        boolean finished() {
+            return outstanding.get() == 0 || failure.get() != null;
+        }
+
+        /**
+         * @return the cost of the best solution found so far
+         */
+        double incumbentCost() {
+            Node<S, A> node = incumbent.get();
+            return node == null ? Double.POSITIVE_INFINITY : node.pathCost;
+        }
+
+        void offerSolution(Node<S, A> goalNode) {
+            Node<S, A> current = incumbent.get();
+            while ((current == null || goalNode.pathCost < current.pathCost) &&
+                    !incumbent.compareAndSet(current, goalNode)) {
+                current = incumbent.get();
+            }
+        }
+
+        void fail(Throwable throwable) {
+            failure.compareAndSet(null, throwable);
+        }
+    }
+
+    private static class Worker<S, A> implements Runnable {
+        final int id;
+        final Coordinator<S, A> coordinator;
+
+        final Queue<Node<S, A>> mailbox = new ConcurrentLinkedQueue<>();
+        final PriorityQueue<Node<S, A>> open = new PriorityQueue<>(
+                Comparator.<Node<S, A>>comparingDouble(node -> node.pathCost + node.heuristicValue)
+                        .thenComparing(Comparator.<Node<S, A>>comparingDouble(node -> node.pathCost).reversed()));
+        // the cheapest known path cost of every state owned by this worker
+        final Map<S, Double> bestCosts = new HashMap<>();
+
+        long expanded = 0;
+        long generated = 0;
+        long heuristicEvaluations = 0;
+        long busyTime = 0;
+
+        Worker(int id, Coordinator<S, A> coordinator) {
+            this.id = id;
+            this.coordinator = coordinator;
+        }
+
+        @Override
+        public void run() {
+            try {
+                int idleRounds = 0;
+                while (!coordinator.finished()) {
+                    boolean received = receive();
+                    Node<S, A> node = open.poll();
+                    if (node == null) {
+                        idleRounds = received ? 0 : idleRounds + 1;
+                        backOff(idleRounds);
+                        continue;
+                    }
+                    idleRounds = 0;
+
+                    long start = System.nanoTime();
+                    process(node);
+                    busyTime += System.nanoTime() - start;
+                }
+            } catch (Throwable e) {
+                coordinator.fail(e);
+            }
+        }
+
+        /**
+         * Waits for work without holding on to the processor for too long,
+         * in case there are more workers than processors.
+         */
+        private static void backOff(int idleRounds) {
+            if (idleRounds < 100)
+                Thread.onSpinWait();
+            else if (idleRounds < 1000)
+                Thread.yield();
+            else
+                LockSupport.parkNanos(100_000);
+        }
+
+        /**
+         * Moves the nodes from the mailbox to the open list, discarding those
+         * that do not improve the path cost of their state.
+         * @return whether any node has been received
+         */
+        private boolean receive() {
+            boolean received = false;
+            Node<S, A> node;
+            while ((node = mailbox.poll()) != null) {
+                received = true;
+                Double bestCost = bestCosts.get(node.state);
+                if (bestCost != null && bestCost <= node.pathCost) {
+                    coordinator.done(1);
+                    continue;
+                }
+                bestCosts.put(node.state, node.pathCost);
+                open.add(node);
+            }
+            return received;
+        }
+
+        private void process(Node<S, A> node) {
+            // A cheaper path to the state has been found since the node was added
+            if (node.pathCost > bestCosts.get(node.state)) {
+                coordinator.done(1);
+                return;
+            }
+
+            // Neither this node nor the rest of the open list can lead to a better solution
+            if (node.pathCost + node.heuristicValue >= coordinator.incumbentCost()) {
+                coordinator.done(1 + open.size());
+                open.clear();
+                return;
+            }
+
+            SearchProblem<S, A> problem = coordinator.problem;
+            if (problem.isGoalState(node.state)) {
+                coordinator.offerSolution(node);
+                coordinator.done(1);
+                return;
+            }
+
+            if (problem.monitor != null)
+                problem.monitor.checkExpansion(coordinator.expansions.incrementAndGet());
+            expanded++;
+            for (SuccessorInfo<S, A> successor : problem.getSuccessors(node.state)) {
+                heuristicEvaluations++;
+                Node<S, A> child = new Node<>(successor.nextState, node, successor.action,
+                        node.pathCost + successor.cost, coordinator.heuristic.value(successor.nextState, problem));
+                if (child.pathCost + child.heuristicValue >= coordinator.incumbentCost())
+                    continue;
+                generated++;
+                coordinator.send(child);
+            }
+            // The children have been sent before this node is marked as processed,
+            // so the number of outstanding nodes cannot drop to zero in between
+            coordinator.done(1);
+        }
+    }
+}
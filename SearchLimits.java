@@ -0,0 +1,198 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the limits that bound the effort of a search, see SearchOptions.limits
+ * and GraphSearch.searchWithLimits.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits on a single search. A search exceeding one of them is aborted.
+ * The defaults do not limit anything.
+ */
+class SearchLimits {
+    // maximum number of expanded states
+    public long maxExpansions = Long.MAX_VALUE;
+    // maximum number of nodes in the frontier
+    public int maxFrontierSize = Integer.MAX_VALUE;
+    // maximum duration of the search, counted from its start
+    public long timeLimitMillis = Long.MAX_VALUE;
+    // time (as given by System.currentTimeMillis) after which the search is aborted
+    public long deadlineMillis = Long.MAX_VALUE;
+    // lets another thread abort the search, can be null
+    public CancellationToken cancellation = null;
+}
+
+/**
+ * Shared between the thread running a search and the threads that may want to abort it.
+ */
+class CancellationToken {
+    private volatile boolean cancelled = false;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
+
+/**
+ * Thrown by the book keeping methods of SearchProblem when a limit of the current search is exceeded.
+ */
+class SearchAbortedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    SearchAbortedException(String reason) {
+        super(reason);
+    }
+}
+
+/**
+ * The outcome of GraphSearch.searchWithLimits.
+ *
+ * @param <S> class for states
+ * @param <A> class for actions
+ */
+class SearchResult<S, A> {
+    enum Status {
+        // a solution has been found
+        SOLVED,
+        // the search space has been exhausted without finding a solution
+        EXHAUSTED,
+        // a limit has been exceeded
+        ABORTED
+    }
+
+    public final Status status;
+    // the solution, if solved
+    public final Solution<S, A> solution;
+    // the most promising node reached before aborting (see SearchMonitor.offer), can be null
+    public final Node<S, A> best;
+    // why the search has been aborted
+    public final String reason;
+
+    private SearchResult(Status status, Solution<S, A> solution, Node<S, A> best, String reason) {
+        this.status = status;
+        this.solution = solution;
+        this.best = best;
+        this.reason = reason;
+    }
+
+    static <S, A> SearchResult<S, A> solved(Solution<S, A> solution) {
+        return new SearchResult<>(Status.SOLVED, solution, null, null);
+    }
+
+    static <S, A> SearchResult<S, A> exhausted() {
+        return new SearchResult<>(Status.EXHAUSTED, null, null, null);
+    }
+
+    static <S, A> SearchResult<S, A> aborted(String reason, Node<S, A> best) {
+        return new SearchResult<>(Status.ABORTED, null, best, reason);
+    }
+
+    /**
+     * @return the actions of the solution if solved, of the path to the best node if aborted,
+     * and an empty list if there are none
+     */
+    public List<A> getActions() {
+        if (solution != null)
+            return solution.actions;
+        if (best != null)
+            return best.getActions();
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String toString() {
+        return status + (reason == null ? "" : " (" + reason + ")");
+    }
+}
+
+/**
+ * Checks the limits of a running search. Installed in the SearchProblem by GraphSearch.search,
+ * and called from its book keeping methods, so that every strategy is covered.
+ *
+ * The checks are cheap: a counter for the expansions and the frontier size, while the clock and the
+ * cancellation token are only looked at every CHECK_INTERVAL expansions.
+ */
+class SearchMonitor<S, A> {
+    private static final int CHECK_INTERVAL = 64;
+
+    private final SearchLimits limits;
+    private final long deadline;
+    private long expansions = 0;
+    private Node<S, A> best = null;
+
+    SearchMonitor(SearchLimits limits) {
+        this.limits = limits;
+        long start = System.currentTimeMillis();
+        this.deadline = limits.timeLimitMillis == Long.MAX_VALUE ? limits.deadlineMillis :
+                Math.min(limits.deadlineMillis, start + limits.timeLimitMillis);
+    }
+
+    SearchLimits getLimits() {
+        return limits;
+    }
+
+    void checkExpansion() {
+        expansions++;
+        if (expansions > limits.maxExpansions)
+            throw new SearchAbortedException("more than " + limits.maxExpansions + " expansions");
+        if (expansions % CHECK_INTERVAL == 1)
+            checkTimeAndCancellation();
+    }
+
+    void checkFrontier(int frontierSize) {
+        if (frontierSize > limits.maxFrontierSize)
+            throw new SearchAbortedException("frontier larger than " + limits.maxFrontierSize + " nodes");
+    }
+
+    /**
+     * Same as checkExpansion, for strategies that expand states in several threads
+     * and count the expansions themselves.
+     */
+    void checkExpansion(long totalExpansions) {
+        if (totalExpansions > limits.maxExpansions)
+            throw new SearchAbortedException("more than " + limits.maxExpansions + " expansions");
+        if (totalExpansions % CHECK_INTERVAL == 1)
+            checkTimeAndCancellation();
+    }
+
+    private void checkTimeAndCancellation() {
+        if (limits.cancellation != null && limits.cancellation.isCancelled())
+            throw new SearchAbortedException("cancelled");
+        if (deadline != Long.MAX_VALUE && System.currentTimeMillis() > deadline)
+            throw new SearchAbortedException("deadline passed");
+    }
+
+    /**
+     * Keeps the node with the smallest heuristic value (the smallest path cost among equal ones)
+     * as the best node returned if the search is aborted. Without a heuristic (bfs, ucs, dfs) every value is 0,
+     * and the node with the largest path cost is kept instead, so that the path leads away from the start.
+     */
+    void offer(Node<S, A> node) {
+        if (best == null || node.heuristicValue < best.heuristicValue)
+            best = node;
+        else if (node.heuristicValue == best.heuristicValue &&
+                (node.heuristicValue == 0 ? node.pathCost > best.pathCost : node.pathCost < best.pathCost))
+            best = node;
+    }
+
+    Node<S, A> getBest() {
+        return best;
+    }
+}
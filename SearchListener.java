@@ -0,0 +1,310 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the listeners that observe a running search, see SearchOptions.listener,
+ * and SearchStatistics, a listener that aggregates what it observes into a report.
+ *
+ * You should not need to modify this file.
+ */
+
+/**
+ * Receives the events of the strategies based on graphSearch (dfs, bfs, ucs, greedy and astar).
+ * All the methods do nothing by default, so a listener only overrides the ones it needs.
+ *
+ * When no listener is attached, graphSearch does not time anything, and the only cost is
+ * a null check per event.
+ *
+ * @param <S> class for states
+ * @param <A> class for actions
+ */
+interface SearchListener<S, A> {
+    /**
+     * A new search of the problem starts.
+     */
+    default void searchStarted(SearchProblem<S, A> problem) {}
+
+    /**
+     * The state of the node has been expanded.
+     */
+    default void nodeExpanded(Node<S, A> node) {}
+
+    /**
+     * The node has been created for a successor and added to the frontier.
+     */
+    default void nodeGenerated(Node<S, A> node) {}
+
+    /**
+     * The state had already been expanded: either it is a successor, which is not added to the frontier,
+     * or it has been popped from the frontier again, and is not expanded again.
+     */
+    default void duplicateFound(S state) {}
+
+    /**
+     * The node has been popped from the frontier and its state is a goal.
+     */
+    default void goalFound(Node<S, A> node) {}
+
+    /**
+     * The frontier has changed and now holds size nodes.
+     */
+    default void frontierSize(int size) {}
+
+    /**
+     * One step of the given phase has taken the given number of nanoseconds.
+     */
+    default void phaseTime(SearchPhase phase, long nanos) {}
+}
+
+/**
+ * The parts of a search step timed for SearchListener.phaseTime.
+ */
+enum SearchPhase {
+    // evaluating the heuristic for a state
+    HEURISTIC,
+    // generating the successors of a state (SearchProblem.expand)
+    SUCCESSORS,
+    // pushing to or popping from the frontier
+    FRONTIER,
+    // adding to or looking up the closed set
+    CLOSED_SET
+}
+
+/**
+ * A listener counting events and adding up the time of each phase. The counts are reset when a search starts,
+ * so after a search they describe that search only. GraphSearch prints them with the other search information.
+ *
+ * @param <S> class for states
+ * @param <A> class for actions
+ */
+class SearchStatistics<S, A> implements SearchListener<S, A> {
+    long expanded;
+    long generated;
+    long duplicates;
+    int peakFrontierSize;
+    // depth of the goal node, -1 if no goal has been found
+    int goalDepth;
+    final long[] phaseCalls = new long[SearchPhase.values().length];
+    final long[] phaseNanos = new long[SearchPhase.values().length];
+
+    public SearchStatistics() {
+        reset();
+    }
+
+    void reset() {
+        expanded = 0;
+        generated = 0;
+        duplicates = 0;
+        peakFrontierSize = 0;
+        goalDepth = -1;
+        java.util.Arrays.fill(phaseCalls, 0);
+        java.util.Arrays.fill(phaseNanos, 0);
+    }
+
+    @Override
+    public void searchStarted(SearchProblem<S, A> problem) {
+        reset();
+    }
+
+    @Override
+    public void nodeExpanded(Node<S, A> node) {
+        expanded++;
+    }
+
+    @Override
+    public void nodeGenerated(Node<S, A> node) {
+        generated++;
+    }
+
+    @Override
+    public void duplicateFound(S state) {
+        duplicates++;
+    }
+
+    @Override
+    public void goalFound(Node<S, A> node) {
+        goalDepth = 0;
+        for (Node<S, A> n = node; n.parent != null; n = n.parent)
+            goalDepth++;
+    }
+
+    @Override
+    public void frontierSize(int size) {
+        if (size > peakFrontierSize)
+            peakFrontierSize = size;
+    }
+
+    @Override
+    public void phaseTime(SearchPhase phase, long nanos) {
+        phaseCalls[phase.ordinal()]++;
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    public long getPhaseNanos(SearchPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getPhaseCalls(SearchPhase phase) {
+        return phaseCalls[phase.ordinal()];
+    }
+
+    public long getHeuristicCalls() {
+        return getPhaseCalls(SearchPhase.HEURISTIC);
+    }
+
+    public int getPeakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    /**
+     * @return the fraction of the states met (as successors or when popped) that had already been expanded
+     */
+    public double getDuplicateRatio() {
+        long met = generated + duplicates;
+        return met == 0 ? 0 : (double) duplicates / met;
+    }
+
+    /**
+     * The branching factor b* that a uniform tree of the depth of the goal would need to contain
+     * as many nodes as the search has generated: N + 1 = 1 + b* + b*^2 + ... + b*^d.
+     *
+     * @return the effective branching factor, or NaN if no goal has been found or the start state is a goal
+     */
+    public double getEffectiveBranchingFactor() {
+        if (goalDepth <= 0)
+            return Double.NaN;
+        double nodes = generated + 1;
+        double low = 0, high = Math.max(1, nodes);
+        // the size of the tree grows with b, so bisect on it
+        for (int i = 0; i < 100; i++) {
+            double b = (low + high) / 2;
+            double size = 0, level = 1;
+            for (int depth = 0; depth <= goalDepth && size <= nodes; depth++) {
+                size += level;
+                level *= b;
+            }
+            if (size > nodes)
+                high = b;
+            else
+                low = b;
+        }
+        return (low + high) / 2;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Expanded ").append(expanded).append(", generated ").append(generated)
+                .append(", duplicates ").append(duplicates)
+                .append(String.format(" (ratio %.3f)", getDuplicateRatio())).append('\n');
+        builder.append("Peak frontier size ").append(peakFrontierSize).append('\n');
+        builder.append("Effective branching factor ")
+                .append(goalDepth <= 0 ? "n/a" : String.format("%.3f (depth %d)", getEffectiveBranchingFactor(), goalDepth))
+                .append('\n');
+        for (SearchPhase phase : SearchPhase.values()) {
+            long calls = phaseCalls[phase.ordinal()];
+            long nanos = phaseNanos[phase.ordinal()];
+            builder.append(String.format("Phase %-10s %10d calls %14d ns (%.1f ns/call)%n",
+                    phase, calls, nanos, calls == 0 ? 0.0 : (double) nanos / calls));
+        }
+        return builder.toString();
+    }
+}
+
+/**
+ * The wrappers below time the operations of a frontier, a closed set and a heuristic for a listener.
+ * graphSearch only wraps its structures when a listener is attached.
+ */
+class TimedFrontier<N> implements Util.Frontier<N> {
+    private final Util.Frontier<N> frontier;
+    private final SearchListener<?, ?> listener;
+
+    TimedFrontier(Util.Frontier<N> frontier, SearchListener<?, ?> listener) {
+        this.frontier = frontier;
+        this.listener = listener;
+    }
+
+    public void push(N item) {
+        long start = System.nanoTime();
+        frontier.push(item);
+        listener.phaseTime(SearchPhase.FRONTIER, System.nanoTime() - start);
+        listener.frontierSize(frontier.size());
+    }
+
+    public N pop() {
+        long start = System.nanoTime();
+        N item = frontier.pop();
+        listener.phaseTime(SearchPhase.FRONTIER, System.nanoTime() - start);
+        return item;
+    }
+
+    public boolean isEmpty() {
+        return frontier.isEmpty();
+    }
+
+    public int size() {
+        return frontier.size();
+    }
+}
+
+class TimedClosedSet<S> implements Util.ClosedSet<S> {
+    private final Util.ClosedSet<S> closedSet;
+    private final SearchListener<?, ?> listener;
+
+    TimedClosedSet(Util.ClosedSet<S> closedSet, SearchListener<?, ?> listener) {
+        this.closedSet = closedSet;
+        this.listener = listener;
+    }
+
+    public boolean add(S state) {
+        long start = System.nanoTime();
+        boolean added = closedSet.add(state);
+        listener.phaseTime(SearchPhase.CLOSED_SET, System.nanoTime() - start);
+        return added;
+    }
+
+    public boolean contains(S state) {
+        long start = System.nanoTime();
+        boolean contained = closedSet.contains(state);
+        listener.phaseTime(SearchPhase.CLOSED_SET, System.nanoTime() - start);
+        return contained;
+    }
+
+    public int size() {
+        return closedSet.size();
+    }
+}
+
+class TimedHeuristic<S, A> implements SearchHeuristic<S, A> {
+    private final SearchHeuristic<S, A> heuristic;
+    private final SearchListener<S, A> listener;
+
+    TimedHeuristic(SearchHeuristic<S, A> heuristic, SearchListener<S, A> listener) {
+        this.heuristic = heuristic;
+        this.listener = listener;
+    }
+
+    @Override
+    public double value(S state, SearchProblem<S, A> problem) {
+        long start = System.nanoTime();
+        double value = heuristic.value(state, problem);
+        listener.phaseTime(SearchPhase.HEURISTIC, System.nanoTime() - start);
+        return value;
+    }
+
+    @Override
+    public Object getCacheKey() {
+        return heuristic.getCacheKey();
+    }
+
+    public String toString() {
+        return heuristic.toString();
+    }
+}
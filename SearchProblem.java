@@ -33,16 +33,33 @@ public abstract class SearchProblem<S, A> {
      * Auxiliary variables for keeping track about the visited and expanded nodes
      */
     long expandedCount;
+    long poppedCount;
+    long heuristicEvaluationCount;
+    int maxFrontierSize;
     List<S> visitedList;
-    Set<S> visitedSet;
+    // whether the expanded states are recorded in visitedList, which only the GUI shows;
+    // off by default, since the list holds every state and would defeat the compact closed sets
+    boolean recordVisited;
+    // created on first use, since it depends on getStateCodec of the subclass
+    Util.ClosedSet<S> visitedSet;
+    // checks the limits of the running search, null if there are none
+    SearchMonitor<S, A> monitor;
+    // observes the running search, null if there is none
+    SearchListener<S, A> listener;
 
     public SearchProblem() {
         /**
          *
          */
         expandedCount = 0;
+        poppedCount = 0;
+        heuristicEvaluationCount = 0;
+        maxFrontierSize = 0;
         visitedList = new ArrayList<>();
-        visitedSet = new HashSet<>();
+        recordVisited = false;
+        visitedSet = null;
+        monitor = null;
+        listener = null;
     }
 
     /**********************************************************
@@ -80,6 +97,63 @@ public abstract class SearchProblem<S, A> {
      */
     public abstract double getCost(S state, A action);
 
+    /**
+     * Problems whose action costs are all non-negative integers should override this method
+     * to return true. Search strategies can then use integer priority structures
+     * (see Util.BucketQueue).
+     *
+     * @return whether all action costs are integers
+     */
+    public boolean hasIntegerCosts() {
+        return false;
+    }
+
+    /**
+     * Problems whose action costs have a known upper bound should override this method to return it.
+     * A lower bound on the cost to a goal then also bounds the number of actions to a goal,
+     * which memory-bounded search uses to give up on the paths that cannot fit in memory
+     * (see MemoryBoundedSearch).
+     *
+     * @return the largest cost of an action, or infinity if it is not known
+     */
+    public double getMaxActionCost() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Problems can override this method to provide a codec mapping their states to long keys.
+     * Search then keeps the keys of expanded states in a primitive hash table
+     * instead of keeping the state objects.
+     *
+     * @return a codec for the states of this problem, or null if there is none
+     */
+    public StateCodec<S> getStateCodec() {
+        return null;
+    }
+
+    /**
+     * Problems can override this method to let their solutions be cached (see SolutionCache).
+     * The key must identify the problem as if it started in the given state: two problems, possibly
+     * on different instances of the same layout, must have equal keys for two states exactly when
+     * the solutions from these states are the same.
+     *
+     * @return the key of the problem started in state, or null if its solutions cannot be cached
+     */
+    public Object getCacheKey(S state) {
+        return null;
+    }
+
+    /**
+     * @return an empty set for keeping track of expanded states, backed by the long keys
+     * of the states if the problem provides a codec
+     */
+    public Util.ClosedSet<S> newClosedSet() {
+        StateCodec<S> codec = getStateCodec();
+        if (codec != null)
+            return new Util.EncodedClosedSet<>(codec);
+        return new Util.HashClosedSet<>();
+    }
+
     /*******************************************************
      * The expand method (implemented) used by graphSearch *
      *******************************************************/
@@ -92,13 +166,24 @@ public abstract class SearchProblem<S, A> {
      */
     public Collection<SuccessorInfo<S, A>> expand(S state) {
 
+        Collection<SuccessorInfo<S, A>> successors = getSuccessors(state);
+
+        doBookKeeping(state); // do not remove
+
+        return successors;
+    }
+
+    /**
+     * Same as expand, but without any book keeping. Used by the strategies that do their own
+     * book keeping (see countExpansion).
+     * @param state
+     * @return
+     */
+    public Collection<SuccessorInfo<S, A>> getSuccessors(S state) {
         Collection<SuccessorInfo<S, A>> successors = new ArrayList<>();
         for (A action : getActions(state)) {
             successors.add(new SuccessorInfo<S, A>(getSuccessor(state, action), action, getCost(state, action)));
         }
-
-        doBookKeeping(state); // do not remove
-
         return successors;
     }
 
@@ -109,12 +194,56 @@ public abstract class SearchProblem<S, A> {
      ***********************************************************/
     public void doBookKeeping(S state) {
         expandedCount++;
-        if (!visitedSet.contains(state)) {
-            visitedSet.add(state);
+        if (monitor != null)
+            monitor.checkExpansion();
+        if (!recordVisited)
+            return;
+        if (visitedSet == null)
+            visitedSet = newClosedSet();
+        if (visitedSet.add(state)) {
             visitedList.add(state);
         }
     }
 
+    /**
+     * Counts an expansion without recording the expanded state in the visited list.
+     * Used by the strategies with bounded memory, for which keeping every visited state
+     * would defeat the purpose.
+     */
+    public void countExpansion() {
+        expandedCount++;
+        if (monitor != null)
+            monitor.checkExpansion();
+    }
+
+    /**
+     * Lets the limits of the running search, if any, keep track of the most promising node
+     * reached, returned if the search is aborted.
+     */
+    public void offerNode(Node<S, A> node) {
+        if (monitor != null)
+            monitor.offer(node);
+    }
+
+    /**
+     * Evaluates the heuristic for the given state, counting the number of evaluations.
+     */
+    public double evaluateHeuristic(SearchHeuristic<S, A> heuristic, S state) {
+        heuristicEvaluationCount++;
+        return heuristic.value(state, this);
+    }
+
+    /**
+     * Records that a node is about to be popped from a frontier of the given size.
+     */
+    public void doFrontierBookKeeping(int frontierSize) {
+        poppedCount++;
+        if (frontierSize > maxFrontierSize)
+            maxFrontierSize = frontierSize;
+        if (monitor != null)
+            monitor.checkFrontier(frontierSize);
+    }
+
     /**
      * This method is useful for printing statistics once solution has been found.
      *
@@ -124,14 +253,72 @@ public abstract class SearchProblem<S, A> {
         return expandedCount;
     }
 
+    /**
+     * @return the number of nodes popped from the frontier, including the ones
+     * whose state had already been expanded
+     */
+    public long getPoppedCount() {
+        return poppedCount;
+    }
+
+    /**
+     * @return the number of times a heuristic has been evaluated during search
+     */
+    public long getHeuristicEvaluationCount() {
+        return heuristicEvaluationCount;
+    }
+
+    /**
+     * @return the largest size the frontier reached during search
+     */
+    public int getMaxFrontierSize() {
+        return maxFrontierSize;
+    }
+
     /**
      * Used in the GUI version.
-     * @return
+     * @return the expanded states, in the order of expansion; empty unless setRecordVisited(true) was called
      */
     public List<S> getVisitedList() { return visitedList; }
+
+    /**
+     * Sets whether the expanded states are recorded for getVisitedList. Must be called before the search.
+     */
+    public void setRecordVisited(boolean recordVisited) { this.recordVisited = recordVisited; }
 }
 
 
+/**
+ * Search problems whose actions can be followed backwards, which makes it possible
+ * to search from the goal states towards the start state (see BidirectionalSearch).
+ * Implemented by SearchProblem subclasses.
+ *
+ * @param <S> class for states
+ * @param <A> class for actions
+ */
+interface ReversibleSearchProblem<S, A> {
+    /**
+     * @return all the goal states of the problem
+     */
+    Collection<S> getGoalStates();
+
+    /**
+     * Returns for every state p and action a such that state is the successor of p via a
+     * a triple of: (p, a, cost of a from p).
+     * Note that the action is the one leading from p to state, not the reverse one.
+     * @param state
+     * @return
+     */
+    Collection<SuccessorInfo<S, A>> getPredecessors(S state);
+
+    /**
+     * @return a problem with the same states and actions whose start state is a goal state
+     * and whose goal is the start state. Used for evaluating heuristics in the backward direction.
+     * Can be null if there is no such problem.
+     */
+    SearchProblem<S, A> getReversedProblem();
+}
+
 /**************************************************************
  ************            Search states            *************
  **************************************************************/
@@ -139,6 +326,19 @@ public abstract class SearchProblem<S, A> {
 interface SearchState {
 }
 
+/**
+ * Maps the states of a search problem to long keys. Two states must be equal
+ * if and only if their keys are equal, and decoding the key of a state must give
+ * a state equal to it.
+ *
+ * @param <S> class for states
+ */
+interface StateCodec<S> {
+    long encode(S state);
+
+    S decode(long key);
+}
+
 /**************************************************************
  ************           Search actions            *************
  **************************************************************/
@@ -156,7 +356,17 @@ interface Action {
  * @param <A>
  */
 interface SearchHeuristic<S, A> {
-    Double value(S state, SearchProblem<S,A > problem);
+    double value(S state, SearchProblem<S,A > problem);
+
+    /**
+     * Heuristics with parameters must override this method (see SolutionCache): two heuristics
+     * must have equal keys exactly when they give the same values.
+     *
+     * @return the key of the heuristic in the cache of solutions, by default the name of its class
+     */
+    default Object getCacheKey() {
+        return getClass().getName();
+    }
 }
 
 /**
@@ -172,7 +382,7 @@ class NullHeuristic<S,A> implements SearchHeuristic<S,A> {
     public NullHeuristic() {}
 
     @Override
-    public Double value(S state, SearchProblem<S, A> problem) {
+    public double value(S state, SearchProblem<S, A> problem) {
         return 0.0;
     }
 
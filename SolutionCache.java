@@ -0,0 +1,205 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains the cache of solutions consulted by GraphSearch before searching,
+ * see SearchOptions.cache and SearchProblem.getCacheKey.
+ *
+ * You should not need to modify this file.
+ */
+
+import java.util.*;
+
+/**
+ * A bounded cache of solutions, keyed by the cache key of the problem (which identifies the maze layout,
+ * the problem type, the start and the goal), the strategy, the heuristic, and the search options that change
+ * the solutions of the strategy. When it is full, the least recently used solution is evicted.
+ *
+ * The solutions of the optimal strategies are also stored for every state along their path: any suffix
+ * of an optimal path is an optimal path from its first state to the same goal. This assumes that the heuristic
+ * is admissible, as it must be for these strategies to be optimal.
+ *
+ * The cache is thread-safe, so it can be shared by the searches of a batch (see BatchSearch)
+ * or by several agents.
+ */
+class SolutionCache {
+    // strategies whose solutions have the least cost, and so whose suffixes are optimal too
+    private static final Set<String> OPTIMAL_STRATEGIES =
+            Set.of("ucs", "astar", "idastar", "hda*", "smastar", "biucs", "biastar", "jps");
+
+    private final int capacity;
+    private final LinkedHashMap<List<Object>, Entry<?, ?>> entries;
+    private long hits;
+    private long suffixHits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * An entry of the cache: a solution, and whether it has been stored as the suffix of another one.
+     */
+    private static class Entry<S, A> {
+        final Solution<S, A> solution;
+        final boolean suffix;
+
+        Entry(Solution<S, A> solution, boolean suffix) {
+            this.solution = solution;
+            this.suffix = suffix;
+        }
+    }
+
+    /**
+     * @param capacity maximum number of solutions kept, suffixes included
+     */
+    public SolutionCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Expecting a positive capacity, got " + capacity);
+        this.capacity = capacity;
+        // access order, so that the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<List<Object>, Entry<?, ?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry<?, ?>> eldest) {
+                if (size() <= SolutionCache.this.capacity)
+                    return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return a copy of the cached solution of the problem from its start state, or null if there is none
+     * or the problem cannot be cached
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <S, A> Solution<S, A> get(String function, SearchProblem<S, A> problem,
+                                                  SearchHeuristic<S, A> heuristic, SearchOptions options) {
+        Object problemKey = problem.getCacheKey(problem.getStartState());
+        if (problemKey == null)
+            return null;
+
+        Entry<S, A> entry = (Entry<S, A>) entries.get(key(problemKey, function, heuristic, options));
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        if (entry.suffix)
+            suffixHits++;
+        // the callers may modify the list of actions
+        return new Solution<>(entry.solution.goalState, new ArrayList<>(entry.solution.actions), entry.solution.pathCost);
+    }
+
+    /**
+     * Stores the solution of the problem from its start state, and, for an optimal strategy,
+     * the solutions from the states along its path.
+     */
+    public synchronized <S, A> void put(String function, SearchProblem<S, A> problem,
+                                        SearchHeuristic<S, A> heuristic, SearchOptions options, Solution<S, A> solution) {
+        S state = problem.getStartState();
+        Object problemKey = problem.getCacheKey(state);
+        if (problemKey == null || solution == null)
+            return;
+
+        // all the entries share the same list of actions, which is never modified
+        List<A> actions = Collections.unmodifiableList(new ArrayList<>(solution.actions));
+        entries.put(key(problemKey, function, heuristic, options), new Entry<>(new Solution<>(solution.goalState, actions,
+                solution.pathCost), false));
+        if (!OPTIMAL_STRATEGIES.contains(function))
+            return;
+
+        // walk along the path, storing the remaining part of it from every state
+        double remainingCost = solution.pathCost;
+        for (int i = 0; i + 1 < actions.size(); i++) {
+            A action = actions.get(i);
+            remainingCost -= problem.getCost(state, action);
+            state = problem.getSuccessor(state, action);
+            List<Object> suffixKey = key(problem.getCacheKey(state), function, heuristic, options);
+            // do not replace a solution searched for, nor refresh its position in the LRU order
+            if (!entries.containsKey(suffixKey))
+                entries.put(suffixKey, new Entry<>(new Solution<>(solution.goalState, actions.subList(i + 1, actions.size()),
+                        remainingCost), true));
+        }
+    }
+
+    private static List<Object> key(Object problemKey, String function, SearchHeuristic<?, ?> heuristic,
+                                    SearchOptions options) {
+        return Arrays.asList(problemKey, function, heuristic == null ? null : heuristic.getCacheKey(),
+                optionsKey(function, options));
+    }
+
+    /**
+     * @return the options that change the solutions of the strategy. The others, such as the number of threads
+     * of hda* or the limits, change how the search runs but not what it returns when it completes.
+     */
+    private static List<Object> optionsKey(String function, SearchOptions options) {
+        List<Object> key = new ArrayList<>();
+        // the paths over the junction graph can differ, and the costs too for the strategies that are not optimal
+        key.add(options.contractCorridors);
+        // the order of the ties decides between paths of the same cost
+        key.add(options.lifoTies);
+        switch (function) {
+            case "arastar":
+                key.add(options.initialWeight);
+                key.add(options.weightDecrement);
+                key.add(options.timeBudgetMillis);
+                break;
+            case "smastar":
+                key.add(options.maxNodes);
+                break;
+            case "beam":
+                key.add(options.beamWidth);
+                break;
+            case "hpa":
+                key.add(options.clusterSize);
+                key.add(options.smoothPath);
+                break;
+        }
+        return key;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of hits on solutions stored as the suffix of another one
+     */
+    public synchronized long getSuffixHits() {
+        return suffixHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Solution cache: %d of %d entries, %d hits (%d on suffixes), %d misses, " +
+                        "hit ratio %.3f, %d evictions",
+                entries.size(), capacity, hits, suffixHits, misses, getHitRatio(), evictions);
+    }
+}
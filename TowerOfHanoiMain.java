@@ -14,8 +14,13 @@ public class TowerOfHanoiMain {
     static void usage() {
         out.println("usage: TowerofHanoiMain [<option>...]");
         out.println("options:");
-        out.println("  -f <strategy> : Search strategy, one of dfs, bfs, ucs, greedy or astar");
+        out.println("  -f <strategy> : Search strategy, one of dfs, bfs, ucs, greedy, astar, idastar, hda*, arastar, smastar, beam, extbfs, bibfs, biucs or biastar");
         out.println("  -h <heuristic> : Search heuristic to use (name of the class)");
+        out.println("  -j <threads> : Number of threads for hda*. The default is the number of available processors");
+        out.println("  -e <weight> : Initial heuristic weight for arastar. The default is 3");
+        out.println("  -b <millis> : Time budget for arastar, after which the best solution found is returned");
+        out.println("  -m <nodes> : Maximum number of nodes kept in memory by smastar. The default is 100000");
+        out.println("  -w <width> : Number of nodes kept in each layer by beam. The default is 100");
         out.println("  --help : Print this message and exit");
         System.exit(1);
     }
@@ -24,6 +29,7 @@ public class TowerOfHanoiMain {
         Integer[][]disks = {{4, 3, 2, 1},{},{}};
         String function = "ucs";
         String heuristicName = "NullHeuristic";
+        SearchOptions options = new SearchOptions();
 
         for (int i = 0 ; i < args.length ; ++i) {
             String s = args[i];
@@ -34,6 +40,21 @@ public class TowerOfHanoiMain {
                 case "-h":
                     heuristicName = args[++i];
                     break;
+                case "-j":
+                    options.threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-e":
+                    options.initialWeight = Double.parseDouble(args[++i]);
+                    break;
+                case "-b":
+                    options.timeBudgetMillis = Long.parseLong(args[++i]);
+                    break;
+                case "-m":
+                    options.maxNodes = Integer.parseInt(args[++i]);
+                    break;
+                case "-w":
+                    options.beamWidth = Integer.parseInt(args[++i]);
+                    break;
                 case "--help":
                     usage();
                 default:
@@ -52,7 +73,13 @@ public class TowerOfHanoiMain {
         SearchHeuristic<TowerOfHanoiSearchState, TowerOfHanoiAction> heuristic =
                 (SearchHeuristic) Class.forName(heuristicName).getConstructor().newInstance();
 
-        Solution<TowerOfHanoiSearchState, TowerOfHanoiAction> solution = GraphSearch.search(function, problem, heuristic, true);
+        Solution<TowerOfHanoiSearchState, TowerOfHanoiAction> solution = GraphSearch.search(function, problem, heuristic, options, true);
+
+        /*
+         All the disks start on the first peg, and moving n disks to another peg takes at least 2^n - 1 moves.
+         */
+        if (solution != null)
+            out.println("Solution cost " + solution.pathCost + ", optimal cost " + ((1 << disks[0].length) - 1));
 
 
         /*
@@ -220,7 +247,7 @@ class TowerOfHanoiHeuristic implements SearchHeuristic<TowerOfHanoiSearchState,T
     public TowerOfHanoiHeuristic() {}
 
     @Override
-    public Double value(TowerOfHanoiSearchState state, SearchProblem<TowerOfHanoiSearchState, TowerOfHanoiAction> problem) {
+    public double value(TowerOfHanoiSearchState state, SearchProblem<TowerOfHanoiSearchState, TowerOfHanoiAction> problem) {
 
         if (problem instanceof TowerOfHanoiSearchProblem) {
             // TODO: implement here
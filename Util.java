@@ -17,9 +17,17 @@
  * You should not need to modify this file.
  */
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 public class Util {
 
@@ -40,6 +48,11 @@ public class Util {
          * check if frontier is empty
          */
         public boolean isEmpty();
+
+        /**
+         * number of items currently in the frontier
+         */
+        public int size();
     }
 
     public static class Stack<N> implements Frontier<N> {
@@ -73,6 +86,10 @@ public class Util {
         public boolean isEmpty() {
             return elements.isEmpty();
         }
+
+        public int size() {
+            return elements.size();
+        }
     };
 
     public static class Queue<N> implements Frontier<N> {
@@ -107,6 +124,10 @@ public class Util {
         public boolean isEmpty() {
             return elements.isEmpty();
         }
+
+        public int size() {
+            return elements.size();
+        }
     }
 
     public static class PriorityQueue<N> implements Frontier<N> {
@@ -145,6 +166,472 @@ public class Util {
         public boolean isEmpty() {
             return elements.isEmpty();
         }
+
+        public int size() {
+            return elements.size();
+        }
+    }
+
+    public static class IndexedPriorityQueue<K, N> implements Frontier<N> {
+        /**
+         * A binary heap that holds at most one item per key (for search, the key of a node is its state).
+         * Pushing an item whose key is already in the queue keeps only the better of the two items
+         * according to the comparator, i.e., it performs a decrease-key instead of adding a duplicate.
+         * Membership of a key can be checked in constant time.
+         */
+
+        private static class Entry<K, N> {
+            K key;
+            N item;
+            int position;
+
+            Entry(K key, N item) {
+                this.key = key;
+                this.item = item;
+            }
+        }
+
+        private final Function<? super N, ? extends K> keyOf;
+        private final Comparator<? super N> comparator;
+        private final HashMap<K, Entry<K, N>> index = new HashMap<>();
+        private Entry<K, N>[] heap;
+        private int size = 0;
+
+        @SuppressWarnings("unchecked")
+        IndexedPriorityQueue(Function<? super N, ? extends K> keyOf, Comparator<? super N> comparator) {
+            this.keyOf = keyOf;
+            this.comparator = comparator;
+            this.heap = (Entry<K, N>[]) new Entry<?, ?>[16];
+        }
+
+        /**
+         * Add 'item' to the queue. If an item with the same key is already in the queue,
+         * only the one that comes first according to the comparator is kept.
+         */
+        public void push(N item) {
+            K key = keyOf.apply(item);
+            Entry<K, N> entry = index.get(key);
+            if (entry != null) {
+                if (comparator.compare(item, entry.item) < 0) {
+                    entry.item = item;
+                    siftUp(entry.position);
+                }
+                return;
+            }
+
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, 2 * size);
+            }
+            entry = new Entry<>(key, item);
+            index.put(key, entry);
+            heap[size] = entry;
+            entry.position = size;
+            size++;
+            siftUp(size - 1);
+        }
+
+        /**
+         * Dequeue the head of the queue. This operation removes the item from the queue.
+         */
+        public N pop() {
+            if (size == 0)
+                return null;
+
+            Entry<K, N> head = heap[0];
+            size--;
+            if (size > 0) {
+                move(heap[size], 0);
+                siftDown(0);
+            }
+            heap[size] = null;
+            index.remove(head.key);
+            return head.item;
+        }
+
+        /**
+         * Returns true if the queue is empty
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the head of the queue without removing it, or null if the queue is empty
+         */
+        public N peek() {
+            return size == 0 ? null : heap[0].item;
+        }
+
+        /**
+         * Returns true if an item with the given key is in the queue
+         */
+        public boolean contains(K key) {
+            return index.containsKey(key);
+        }
+
+        /**
+         * Returns the item with the given key, or null if there is none in the queue
+         */
+        public N get(K key) {
+            Entry<K, N> entry = index.get(key);
+            return entry == null ? null : entry.item;
+        }
+
+        /**
+         * Returns the items in the queue, in no particular order
+         */
+        public List<N> items() {
+            List<N> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                items.add(heap[i].item);
+            return items;
+        }
+
+        private void siftUp(int position) {
+            Entry<K, N> entry = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (comparator.compare(entry.item, heap[parent].item) >= 0)
+                    break;
+                move(heap[parent], position);
+                position = parent;
+            }
+            move(entry, position);
+        }
+
+        private void siftDown(int position) {
+            Entry<K, N> entry = heap[position];
+            int half = size >>> 1;
+            while (position < half) {
+                int child = 2 * position + 1;
+                int right = child + 1;
+                if (right < size && comparator.compare(heap[right].item, heap[child].item) < 0)
+                    child = right;
+                if (comparator.compare(entry.item, heap[child].item) <= 0)
+                    break;
+                move(heap[child], position);
+                position = child;
+            }
+            move(entry, position);
+        }
+
+        private void move(Entry<K, N> entry, int position) {
+            heap[position] = entry;
+            entry.position = position;
+        }
+    }
+
+    public static class BucketQueue<N> implements Frontier<N> {
+        /**
+         * A bucket-based (Dial) priority queue for small non-negative integer priorities,
+         * for instance, the f-values of A* when all action costs are integers.
+         * Items are stored in an array of buckets indexed by their priority, so that push and pop
+         * take constant (amortised) time instead of the logarithmic time of a binary heap.
+         *
+         * Ties between items with the same priority are broken on a secondary integer key
+         * (for search, the path cost g), preferring either the larger or the smaller key.
+         * Items with the same priority and the same key are returned in first-in-first-out order,
+         * or in last-in-first-out order if lifo is set.
+         *
+         * If a key function is given, the queue keeps at most one item per key, like IndexedPriorityQueue:
+         * pushing an item that comes before the queued one with the same key replaces it (decrease-key),
+         * and pushing one that does not is ignored. The replaced item stays in its bucket
+         * and is skipped when it is reached, so that the replacement also takes constant time.
+         */
+
+        private static class Bucket<N> {
+            // items of the bucket, indexed by their tie-breaking key
+            ArrayList<ArrayDeque<N>> byTieBreak = new ArrayList<>();
+            // index of the first entry of byTieBreak that can be non-empty (in the preferred direction)
+            int cursor = -1;
+            // number of items stored in the bucket, including the replaced ones
+            int size = 0;
+        }
+
+        private final ToIntFunction<? super N> priority;
+        private final ToIntFunction<? super N> tieBreak;
+        private final boolean preferLargerTieBreak;
+        private final Function<? super N, ?> keyOf;
+        private final boolean lifo;
+        // the queued item of every key, if keyOf is set
+        private final HashMap<Object, N> queued = new HashMap<>();
+        private final ArrayList<Bucket<N>> buckets = new ArrayList<>();
+        // index of the first bucket that can be non-empty
+        private int minPriority = 0;
+        // number of items stored in the buckets, and number of them that have not been replaced
+        private int stored = 0;
+        private int size = 0;
+
+        BucketQueue(ToIntFunction<? super N> priority) {
+            this(priority, item -> 0, false);
+        }
+
+        BucketQueue(ToIntFunction<? super N> priority,
+                    ToIntFunction<? super N> tieBreak,
+                    boolean preferLargerTieBreak) {
+            this(priority, tieBreak, preferLargerTieBreak, null, false);
+        }
+
+        /**
+         * @param keyOf key of the items, at most one item per key is kept; null to keep all the items
+         * @param lifo whether the items with the same priority and tie-breaking key are returned last-in-first-out
+         */
+        BucketQueue(ToIntFunction<? super N> priority,
+                    ToIntFunction<? super N> tieBreak,
+                    boolean preferLargerTieBreak,
+                    Function<? super N, ?> keyOf,
+                    boolean lifo) {
+            this.priority = priority;
+            this.tieBreak = tieBreak;
+            this.preferLargerTieBreak = preferLargerTieBreak;
+            this.keyOf = keyOf;
+            this.lifo = lifo;
+        }
+
+        /**
+         * Add 'item' to the queue. If a key function is set and an item with the same key
+         * is already in the queue, only the one that comes first is kept.
+         */
+        public void push(N item) {
+            int p = priority.applyAsInt(item);
+            int t = tieBreak.applyAsInt(item);
+            if (p < 0 || t < 0)
+                throw new IllegalArgumentException("Bucket queue expects non-negative priorities, got " + p + ", " + t);
+
+            if (keyOf != null) {
+                Object key = keyOf.apply(item);
+                N old = queued.get(key);
+                if (old != null) {
+                    int oldP = priority.applyAsInt(old);
+                    int oldT = tieBreak.applyAsInt(old);
+                    if (p > oldP || (p == oldP && (preferLargerTieBreak ? t <= oldT : t >= oldT)))
+                        return;
+                    // the old item is skipped when it is popped
+                    size--;
+                }
+                queued.put(key, item);
+            }
+
+            while (buckets.size() <= p)
+                buckets.add(new Bucket<>());
+            Bucket<N> bucket = buckets.get(p);
+            while (bucket.byTieBreak.size() <= t)
+                bucket.byTieBreak.add(new ArrayDeque<>());
+            bucket.byTieBreak.get(t).add(item);
+
+            if (bucket.size == 0 || (preferLargerTieBreak ? t > bucket.cursor : t < bucket.cursor))
+                bucket.cursor = t;
+            bucket.size++;
+
+            if (stored == 0 || p < minPriority)
+                minPriority = p;
+            stored++;
+            size++;
+        }
+
+        /**
+         * Dequeue an item with the smallest priority. This operation removes the item from the queue.
+         */
+        public N pop() {
+            while (size > 0) {
+                while (buckets.get(minPriority).size == 0)
+                    minPriority++;
+                Bucket<N> bucket = buckets.get(minPriority);
+                while (bucket.byTieBreak.get(bucket.cursor).isEmpty())
+                    bucket.cursor += preferLargerTieBreak ? -1 : 1;
+
+                ArrayDeque<N> items = bucket.byTieBreak.get(bucket.cursor);
+                N item = lifo ? items.pollLast() : items.pollFirst();
+                bucket.size--;
+                stored--;
+                if (keyOf != null) {
+                    Object key = keyOf.apply(item);
+                    if (queued.get(key) != item)
+                        continue;
+                    queued.remove(key);
+                }
+                size--;
+                return item;
+            }
+            return null;
+        }
+
+        /**
+         * Returns true if the queue is empty
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A uniform data-structure for the set of expanded (closed) states.
+     */
+    public static interface ClosedSet<S> {
+        /**
+         * add state to the set
+         * @return true if the state was not in the set before
+         */
+        public boolean add(S state);
+
+        /**
+         * check if state is in the set
+         */
+        public boolean contains(S state);
+
+        /**
+         * number of states in the set
+         */
+        public int size();
+    }
+
+    public static class HashClosedSet<S> implements ClosedSet<S> {
+        /**
+         * A closed set storing the state objects themselves.
+         * Relies on equals and hashCode of the states.
+         */
+
+        HashSet<S> elements = null;
+
+        HashClosedSet() {
+            elements = new HashSet<>();
+        }
+
+        public boolean add(S state) {
+            return elements.add(state);
+        }
+
+        public boolean contains(S state) {
+            return elements.contains(state);
+        }
+
+        public int size() {
+            return elements.size();
+        }
+    }
+
+    public static class EncodedClosedSet<S> implements ClosedSet<S> {
+        /**
+         * A closed set storing only the long keys of the states computed by a StateCodec,
+         * so that no state object is retained by the set.
+         */
+
+        private final StateCodec<S> codec;
+        private final LongHashSet keys;
+
+        EncodedClosedSet(StateCodec<S> codec) {
+            this.codec = codec;
+            this.keys = new LongHashSet();
+        }
+
+        public boolean add(S state) {
+            return keys.add(codec.encode(state));
+        }
+
+        public boolean contains(S state) {
+            return keys.contains(codec.encode(state));
+        }
+
+        public int size() {
+            return keys.size();
+        }
+    }
+
+    public static class LongHashSet {
+        /**
+         * A set of primitive longs backed by an open-addressing hash table with linear probing.
+         * Uses 8 bytes per slot and no object per element, unlike HashSet<Long>.
+         */
+
+        private static final long EMPTY = 0L;
+        private static final double MAX_LOAD = 0.6;
+
+        private long[] table;
+        private int mask;
+        private int size = 0;
+        // the value 0 marks an empty slot, so it is tracked separately
+        private boolean containsZero = false;
+
+        LongHashSet() {
+            this(1024);
+        }
+
+        LongHashSet(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+            table = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        /**
+         * @return true if the key was not in the set before
+         */
+        public boolean add(long key) {
+            if (key == EMPTY) {
+                if (containsZero)
+                    return false;
+                containsZero = true;
+                size++;
+                return true;
+            }
+
+            int slot = slot(key);
+            while (table[slot] != EMPTY) {
+                if (table[slot] == key)
+                    return false;
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = key;
+            size++;
+            if (size > MAX_LOAD * table.length)
+                grow();
+            return true;
+        }
+
+        public boolean contains(long key) {
+            if (key == EMPTY)
+                return containsZero;
+
+            int slot = slot(key);
+            while (table[slot] != EMPTY) {
+                if (table[slot] == key)
+                    return true;
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private int slot(long key) {
+            // spread the bits of the key (the finalizer of the SplitMix64 generator)
+            key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+            key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return (int) (key ^ (key >>> 33)) & mask;
+        }
+
+        private void grow() {
+            long[] oldTable = table;
+            table = new long[2 * oldTable.length];
+            mask = table.length - 1;
+            for (long key : oldTable) {
+                if (key != EMPTY) {
+                    int slot = slot(key);
+                    while (table[slot] != EMPTY)
+                        slot = (slot + 1) & mask;
+                    table[slot] = key;
+                }
+            }
+        }
     }
 }
 
@@ -203,25 +690,52 @@ class Coordinate {
 
 /**
  * Data structure to represent nodes of a search tree.
+ *
+ * A node only stores the action leading to it from its parent, so creating a child is O(1).
+ * The full sequence of actions is reconstructed by following the parent references
+ * (see getActions), which is only needed once a goal node has been found.
  */
 class Node<S, A> {
 
     // the state of the node
     S state;
-    // the sequence of actions to get from the start state to the current state
-    List<A> actions;
-    // the cost of this sequence of actions
+    // the node this one was generated from (null for the root of the search tree)
+    Node<S, A> parent;
+    // the action that leads from the parent state to the current state (null for the root)
+    A action;
+    // the cost of the sequence of actions from the start state to the current state
     double pathCost;
+    // the heuristic value of the state, evaluated once when the node is created
+    // (0 for uninformed search)
+    double heuristicValue;
+
+    public Node(S state, Node<S, A> parent, A action, double pathCost) {
+        this(state, parent, action, pathCost, 0);
+    }
 
-    public Node(S state, List<A> actions, double pathCost) {
+    public Node(S state, Node<S, A> parent, A action, double pathCost, double heuristicValue) {
         this.state = state;
-        this.actions = actions;
+        this.parent = parent;
+        this.action = action;
         this.pathCost = pathCost;
+        this.heuristicValue = heuristicValue;
+    }
+
+    /**
+     * @return the sequence of actions to get from the start state to the current state
+     */
+    public List<A> getActions() {
+        List<A> actions = new ArrayList<>();
+        for (Node<S, A> node = this; node.parent != null; node = node.parent) {
+            actions.add(node.action);
+        }
+        Collections.reverse(actions);
+        return actions;
     }
 
     @Override
     public String toString() {
-        return "(" + state + ", " + actions + ", "  + pathCost + ")";
+        return "(" + state + ", " + getActions() + ", "  + pathCost + ")";
     }
 }
 
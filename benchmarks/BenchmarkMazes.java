@@ -0,0 +1,95 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file generates the mazes used by SearchBenchmarks, so that the benchmarks
+ * do not depend on the layouts in the 'mazes' folder.
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+class BenchmarkMazes {
+
+    /**
+     * Generates a square maze: a spanning tree of corridors carved by a randomized depth-first search,
+     * in which a fraction of the remaining inner walls between two corridors is then removed,
+     * so that there are several paths between most cells. Pacman starts in the bottom left corner.
+     * The same seed always gives the same maze.
+     *
+     * @param size width and height of the maze, an odd number of at least 5
+     * @param loopFraction fraction of the inner walls removed after carving
+     * @param foodCount number of food dots, placed on random corridor cells
+     */
+    static Maze generate(int size, double loopFraction, int foodCount, long seed) {
+        if (size < 5 || size % 2 == 0)
+            throw new IllegalArgumentException("Expecting an odd maze size of at least 5, got " + size);
+
+        Random random = new Random(seed);
+        boolean[][] walls = new boolean[size][size];
+        for (boolean[] row : walls)
+            java.util.Arrays.fill(row, true);
+
+        // Corridor cells have odd coordinates, the cells in between are opened when carving
+        int[][] directions = {{2, 0}, {-2, 0}, {0, 2}, {0, -2}};
+        Deque<int[]> stack = new ArrayDeque<>();
+        walls[1][1] = false;
+        stack.push(new int[]{1, 1});
+        while (!stack.isEmpty()) {
+            int[] cell = stack.peek();
+            List<int[]> unvisited = new ArrayList<>();
+            for (int[] direction : directions) {
+                int x = cell[0] + direction[0], y = cell[1] + direction[1];
+                if (x > 0 && y > 0 && x < size - 1 && y < size - 1 && walls[y][x])
+                    unvisited.add(new int[]{x, y});
+            }
+            if (unvisited.isEmpty()) {
+                stack.pop();
+                continue;
+            }
+            int[] next = unvisited.get(random.nextInt(unvisited.size()));
+            walls[(cell[1] + next[1]) / 2][(cell[0] + next[0]) / 2] = false;
+            walls[next[1]][next[0]] = false;
+            stack.push(next);
+        }
+
+        for (int y = 1; y < size - 1; y++) {
+            for (int x = 1; x < size - 1; x++) {
+                boolean between = (x % 2 == 0) != (y % 2 == 0);
+                if (between && walls[y][x] && random.nextDouble() < loopFraction)
+                    walls[y][x] = false;
+            }
+        }
+
+        Coordinate pacman = new Coordinate(1, 1);
+        boolean[][] food = new boolean[size][size];
+        List<Coordinate> open = new ArrayList<>();
+        for (int y = 1; y < size - 1; y++)
+            for (int x = 1; x < size - 1; x++)
+                if (!walls[y][x] && !(x == pacman.x && y == pacman.y))
+                    open.add(new Coordinate(x, y));
+        for (int i = 0; i < foodCount && !open.isEmpty(); i++) {
+            Coordinate dot = open.remove(random.nextInt(open.size()));
+            food[dot.y][dot.x] = true;
+        }
+
+        return new Maze(walls, food, new boolean[size][size], size, size, pacman, new ArrayList<>());
+    }
+
+    /**
+     * The corridor cell in the corner opposite to the start of pacman.
+     */
+    static Coordinate farCorner(Maze maze) {
+        return new Coordinate(maze.getWidth() - 2, maze.getHeight() - 2);
+    }
+}
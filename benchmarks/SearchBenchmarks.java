@@ -0,0 +1,500 @@
+/*
+ * This project was developed for the Introduction to Artificial Intelligence/Intelligent Systems
+ * module COMP5280/8250 at University of Kent.
+ *
+ * The java code was created by Elena Botoeva (e.botoeva@kent.ac.uk) and
+ * follows the structure and the design of the Pacman AI projects
+ * (the core part of the project on search)
+ * developed at UC Berkeley http://ai.berkeley.edu.
+ */
+
+/**
+ * This file contains a benchmark suite for the search strategies and the frontiers.
+ *
+ * Compile and run it together with the rest of the code, from the root of the project:
+ *
+ *   javac -d out *.java benchmarks/*.java
+ *   java -cp out SearchBenchmarks -o results.json
+ *
+ * Every benchmark is run for a number of warmup iterations, whose results are discarded,
+ * followed by measurement iterations of a fixed duration, like JMH does in its throughput mode.
+ * For each benchmark the suite reports
+ *  - the throughput, in operations (searches, or fill and drain rounds of a frontier) per second;
+ *  - the allocation rate and the bytes allocated per operation, measured for the benchmark thread,
+ *    together with the number and duration of garbage collections;
+ *  - the number of expansions (for the frontiers, the number of items) per second.
+ * The results can be written as JSON, in a format close to the one of JMH, for tracking over time.
+ */
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static java.lang.System.out;
+
+public class SearchBenchmarks {
+
+    static void usage() {
+        out.println("usage: SearchBenchmarks [<option>...]");
+        out.println("options:");
+        out.println("  -f <regex> : Run only the benchmarks whose name contains a match of the regular expression");
+        out.println("  -wi <count> : Number of warmup iterations. The default is 2");
+        out.println("  -i <count> : Number of measurement iterations. The default is 5");
+        out.println("  -r <millis> : Duration of an iteration. The default is 1000");
+        out.println("  -o <file> : Write the results as JSON to the file");
+        out.println("  -l : List the benchmarks and exit");
+        out.println("  --help : Print this message and exit");
+        System.exit(1);
+    }
+
+    // strategies run on every problem, in addition to the problem-specific ones
+    static final String[] STRATEGIES = {"dfs", "bfs", "ucs", "greedy", "astar", "idastar", "hda*",
+            "arastar", "smastar", "beam", "extbfs"};
+    static final String[] REVERSIBLE_STRATEGIES = {"bibfs", "biucs", "biastar"};
+
+    // generated maze sizes for PacmanPositionSearchProblem
+    static final int[] MAZE_SIZES = {21, 41, 81, 161};
+    static final double MAZE_LOOP_FRACTION = 0.1;
+    static final long MAZE_SEED = 42;
+
+    // 8-puzzle instances and the number of moves of their optimal solutions
+    static final int[][] PUZZLES = {
+            {4, 3, 2, 6, 0, 5, 7, 1, 8},
+            {0, 3, 1, 6, 4, 5, 7, 2, 8},
+            {0, 6, 1, 4, 8, 5, 3, 2, 7},
+            {0, 3, 4, 7, 5, 8, 6, 2, 1}};
+    static final int[] PUZZLE_DEPTHS = {8, 14, 20, 24};
+
+    // number of items pushed and popped by one operation of a frontier benchmark
+    static final int FRONTIER_ITEMS = 100000;
+
+    /**
+     * A search is aborted after this many expansions, so that a strategy that is hopeless
+     * on some instance (for instance, idastar on a maze with many loops) is reported as such
+     * instead of running forever.
+     */
+    static final long MAX_EXPANSIONS = 5_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Pattern filter = null;
+        int warmupIterations = 2;
+        int iterations = 5;
+        long iterationMillis = 1000;
+        String outputFile = null;
+        boolean list = false;
+
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "-f":
+                    filter = Pattern.compile(args[++i]);
+                    break;
+                case "-wi":
+                    warmupIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-i":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-r":
+                    iterationMillis = Long.parseLong(args[++i]);
+                    break;
+                case "-o":
+                    outputFile = args[++i];
+                    break;
+                case "-l":
+                    list = true;
+                    break;
+                case "--help":
+                default:
+                    usage();
+            }
+        }
+
+        List<Benchmark> benchmarks = new ArrayList<>();
+        addMazeBenchmarks(benchmarks);
+        addFoodBenchmarks(benchmarks);
+        addPuzzleBenchmarks(benchmarks);
+        addFrontierBenchmarks(benchmarks);
+
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (Benchmark benchmark : benchmarks) {
+            if (filter != null && !filter.matcher(benchmark.fullName()).find())
+                continue;
+            if (list) {
+                out.println(benchmark.fullName());
+                continue;
+            }
+
+            BenchmarkResult result = measure(benchmark, warmupIterations, iterations, iterationMillis);
+            out.println(result.summary());
+            results.add(result);
+        }
+
+        if (outputFile != null && !list) {
+            try (Writer writer = new FileWriter(outputFile)) {
+                writeJson(writer, results, warmupIterations, iterations, iterationMillis);
+            }
+            out.println("Results written to " + outputFile);
+        }
+    }
+
+    /**************************************************************
+     ************            Benchmarks               *************
+     **************************************************************/
+
+    /**
+     * A benchmarked operation, run repeatedly.
+     */
+    static abstract class Benchmark {
+        final String name;
+        final Map<String, String> params = new LinkedHashMap<>();
+        // cost of the solution found by the last search, NaN if none
+        double lastCost = Double.NaN;
+
+        Benchmark(String name) {
+            this.name = name;
+        }
+
+        String fullName() {
+            StringBuilder builder = new StringBuilder(name);
+            if (!params.isEmpty()) {
+                builder.append(params.toString().replace('{', '[').replace('}', ']').replace(" ", ""));
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Runs the operation once.
+         * @return the amount of work done: the number of expansions, or of frontier items
+         */
+        abstract long run();
+
+        // name of the work counted by run
+        String workUnit() {
+            return "expansions";
+        }
+    }
+
+    /**
+     * Solves a fresh instance of a problem with a strategy.
+     */
+    static class SearchBenchmark<S, A> extends Benchmark {
+        private final Supplier<SearchProblem<S, A>> problems;
+        private final SearchHeuristic<S, A> heuristic;
+        private final String strategy;
+        private final SearchOptions options = new SearchOptions();
+
+        SearchBenchmark(String name, String strategy, Supplier<SearchProblem<S, A>> problems,
+                        SearchHeuristic<S, A> heuristic) {
+            super(name);
+            this.strategy = strategy;
+            this.problems = problems;
+            this.heuristic = heuristic;
+            params.put("strategy", strategy);
+            options.limits = new SearchLimits();
+            options.limits.maxExpansions = MAX_EXPANSIONS;
+        }
+
+        @Override
+        long run() {
+            SearchProblem<S, A> problem = problems.get();
+            Solution<S, A> solution = GraphSearch.search(strategy, problem, heuristic, options, false);
+            lastCost = solution == null ? Double.NaN : solution.pathCost;
+            return problem.getExpandedCount();
+        }
+    }
+
+    /**
+     * Pushes items with random priorities into a frontier and pops them all.
+     */
+    static class FrontierBenchmark extends Benchmark {
+        private final Supplier<Util.Frontier<Node<Integer, Integer>>> frontiers;
+        private final List<Node<Integer, Integer>> items = new ArrayList<>();
+
+        FrontierBenchmark(String frontierName, Supplier<Util.Frontier<Node<Integer, Integer>>> frontiers) {
+            super("frontier");
+            this.frontiers = frontiers;
+            params.put("frontier", frontierName);
+            params.put("items", String.valueOf(FRONTIER_ITEMS));
+
+            // small integer priorities with many ties, like the f-values of A* in a maze
+            Random random = new Random(FRONTIER_ITEMS);
+            for (int i = 0; i < FRONTIER_ITEMS; i++)
+                items.add(new Node<>(i, null, null, random.nextInt(1000)));
+        }
+
+        @Override
+        long run() {
+            Util.Frontier<Node<Integer, Integer>> frontier = frontiers.get();
+            for (Node<Integer, Integer> item : items)
+                frontier.push(item);
+            long checksum = 0;
+            while (!frontier.isEmpty())
+                checksum += frontier.pop().state;
+            if (checksum != (long) FRONTIER_ITEMS * (FRONTIER_ITEMS - 1) / 2)
+                throw new RuntimeException("Frontier " + params.get("frontier") + " lost items");
+            return FRONTIER_ITEMS;
+        }
+
+        @Override
+        String workUnit() {
+            return "items";
+        }
+    }
+
+    static void addMazeBenchmarks(List<Benchmark> benchmarks) {
+        SearchHeuristic<PacmanPositionSearchState, PacmanAction> heuristic = new ManhattanDistanceHeuristic();
+        for (int size : MAZE_SIZES) {
+            Maze maze = BenchmarkMazes.generate(size, MAZE_LOOP_FRACTION, 0, MAZE_SEED);
+            Coordinate goal = BenchmarkMazes.farCorner(maze);
+            Supplier<SearchProblem<PacmanPositionSearchState, PacmanAction>> problems =
+                    () -> new PacmanPositionSearchProblem(maze, goal, maze.getInitialPacmanLocation());
+            double optimalCost = GraphSearch.search("bfs", problems.get(), null, false).pathCost;
+
+            List<String> strategies = new ArrayList<>(Arrays.asList(STRATEGIES));
+            strategies.addAll(Arrays.asList(REVERSIBLE_STRATEGIES));
+            strategies.add("jps");
+            for (String strategy : strategies) {
+                Benchmark benchmark = new SearchBenchmark<>("maze", strategy, problems, heuristic);
+                benchmark.params.put("size", String.valueOf(size));
+                benchmark.params.put("optimalCost", String.valueOf(optimalCost));
+                benchmarks.add(benchmark);
+            }
+        }
+    }
+
+    static void addFoodBenchmarks(List<Benchmark> benchmarks) {
+        SearchHeuristic<PacmanFoodSearchState, PacmanAction> heuristic = new PacmanFoodHeuristic();
+        int size = 11;
+        int foodCount = 6;
+        Maze maze = BenchmarkMazes.generate(size, MAZE_LOOP_FRACTION, foodCount, MAZE_SEED);
+        Supplier<SearchProblem<PacmanFoodSearchState, PacmanAction>> problems = () -> new PacmanFoodSearchProblem(maze);
+        double optimalCost = GraphSearch.search("bfs", problems.get(), null, false).pathCost;
+
+        // the food problem is not reversible, so the bidirectional strategies do not apply
+        for (String strategy : STRATEGIES) {
+            Benchmark benchmark = new SearchBenchmark<>("food", strategy, problems, heuristic);
+            benchmark.params.put("size", String.valueOf(size));
+            benchmark.params.put("food", String.valueOf(foodCount));
+            benchmark.params.put("optimalCost", String.valueOf(optimalCost));
+            benchmarks.add(benchmark);
+        }
+    }
+
+    static void addPuzzleBenchmarks(List<Benchmark> benchmarks) {
+        SearchHeuristic<NPuzzleSearchState, NPuzzleAction> heuristic = new NullHeuristic<>();
+        for (int i = 0; i < PUZZLES.length; i++) {
+            int[] numbers = PUZZLES[i];
+            Supplier<SearchProblem<NPuzzleSearchState, NPuzzleAction>> problems = () -> new NPuzzleSearchProblem(numbers);
+
+            List<String> strategies = new ArrayList<>(Arrays.asList(STRATEGIES));
+            strategies.addAll(Arrays.asList(REVERSIBLE_STRATEGIES));
+            for (String strategy : strategies) {
+                Benchmark benchmark = new SearchBenchmark<>("npuzzle", strategy, problems, heuristic);
+                benchmark.params.put("depth", String.valueOf(PUZZLE_DEPTHS[i]));
+                benchmark.params.put("optimalCost", String.valueOf((double) PUZZLE_DEPTHS[i]));
+                benchmarks.add(benchmark);
+            }
+        }
+    }
+
+    static void addFrontierBenchmarks(List<Benchmark> benchmarks) {
+        Comparator<Node<Integer, Integer>> byPathCost = Comparator.comparingDouble(node -> node.pathCost);
+        benchmarks.add(new FrontierBenchmark("Stack", Util.Stack::new));
+        benchmarks.add(new FrontierBenchmark("Queue", Util.Queue::new));
+        benchmarks.add(new FrontierBenchmark("PriorityQueue", () -> new Util.PriorityQueue<>(byPathCost)));
+        benchmarks.add(new FrontierBenchmark("IndexedPriorityQueue",
+                () -> new Util.IndexedPriorityQueue<>(node -> node.state, byPathCost)));
+        benchmarks.add(new FrontierBenchmark("BucketQueue",
+                () -> new Util.BucketQueue<>(node -> (int) node.pathCost)));
+    }
+
+    /**************************************************************
+     ************            Measurement              *************
+     **************************************************************/
+
+    static class IterationResult {
+        long operations;
+        long work;
+        long nanos;
+        long allocatedBytes;
+        long gcCount;
+        long gcMillis;
+
+        double operationsPerSecond() {
+            return operations * 1e9 / nanos;
+        }
+    }
+
+    static class BenchmarkResult {
+        final Benchmark benchmark;
+        final List<IterationResult> iterations = new ArrayList<>();
+        // why the benchmark could not be measured, null if it has been
+        String skipped = null;
+
+        BenchmarkResult(Benchmark benchmark) {
+            this.benchmark = benchmark;
+        }
+
+        private long total(java.util.function.ToLongFunction<IterationResult> field) {
+            return iterations.stream().mapToLong(field).sum();
+        }
+
+        double score() {
+            return iterations.stream().mapToDouble(IterationResult::operationsPerSecond).average().orElse(Double.NaN);
+        }
+
+        double scoreStdev() {
+            double mean = score();
+            double squares = iterations.stream()
+                    .mapToDouble(iteration -> Math.pow(iteration.operationsPerSecond() - mean, 2)).sum();
+            return iterations.size() < 2 ? 0 : Math.sqrt(squares / (iterations.size() - 1));
+        }
+
+        // MB allocated per second
+        double allocationRate() {
+            return total(iteration -> iteration.allocatedBytes) / 1e6 / (total(iteration -> iteration.nanos) / 1e9);
+        }
+
+        // bytes allocated per operation
+        double allocationPerOperation() {
+            return (double) total(iteration -> iteration.allocatedBytes) / total(iteration -> iteration.operations);
+        }
+
+        double workPerSecond() {
+            return total(iteration -> iteration.work) / (total(iteration -> iteration.nanos) / 1e9);
+        }
+
+        String summary() {
+            if (skipped != null)
+                return String.format("%-60s skipped: %s", benchmark.fullName(), skipped);
+            return String.format("%-60s %12.3f +- %9.3f ops/s  %10.1f MB/s  %14.0f B/op  %14.0f %s/s",
+                    benchmark.fullName(), score(), scoreStdev(), allocationRate(), allocationPerOperation(),
+                    workPerSecond(), benchmark.workUnit());
+        }
+    }
+
+    static BenchmarkResult measure(Benchmark benchmark, int warmupIterations, int iterations, long iterationMillis) {
+        BenchmarkResult result = new BenchmarkResult(benchmark);
+        try {
+            for (int i = 0; i < warmupIterations; i++)
+                runIteration(benchmark, iterationMillis);
+            for (int i = 0; i < iterations; i++)
+                result.iterations.add(runIteration(benchmark, iterationMillis));
+        } catch (SearchAbortedException e) {
+            result.skipped = "search aborted, " + e.getMessage();
+            result.iterations.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Runs the operation of the benchmark until the iteration time is over (at least once).
+     */
+    static IterationResult runIteration(Benchmark benchmark, long iterationMillis) {
+        IterationResult iteration = new IterationResult();
+        long allocatedBefore = allocatedBytes();
+        long gcCountBefore = 0, gcMillisBefore = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCountBefore += Math.max(0, collector.getCollectionCount());
+            gcMillisBefore += Math.max(0, collector.getCollectionTime());
+        }
+
+        long start = System.nanoTime();
+        long end = start + iterationMillis * 1_000_000;
+        long now;
+        do {
+            iteration.work += benchmark.run();
+            iteration.operations++;
+            now = System.nanoTime();
+        } while (now < end);
+        iteration.nanos = now - start;
+
+        iteration.allocatedBytes = allocatedBytes() - allocatedBefore;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            iteration.gcCount += Math.max(0, collector.getCollectionCount());
+            iteration.gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        iteration.gcCount -= gcCountBefore;
+        iteration.gcMillis -= gcMillisBefore;
+        return iteration;
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or 0 if the JVM cannot tell.
+     * The allocations of other threads, for instance the workers of hda*, are not included.
+     */
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**************************************************************
+     ************               JSON                  *************
+     **************************************************************/
+
+    static void writeJson(Writer writer, List<BenchmarkResult> results,
+                          int warmupIterations, int iterations, long iterationMillis) throws IOException {
+        writer.write("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            BenchmarkResult result = results.get(i);
+            Benchmark benchmark = result.benchmark;
+            writer.write("  {\n");
+            writer.write("    \"benchmark\": " + quote(benchmark.name) + ",\n");
+            writer.write("    \"mode\": \"thrpt\",\n");
+            writer.write("    \"warmupIterations\": " + warmupIterations + ",\n");
+            writer.write("    \"measurementIterations\": " + iterations + ",\n");
+            writer.write("    \"measurementTime\": \"" + iterationMillis + " ms\",\n");
+            writer.write("    \"params\": {");
+            int p = 0;
+            for (Map.Entry<String, String> param : benchmark.params.entrySet()) {
+                writer.write((p++ == 0 ? "" : ", ") + quote(param.getKey()) + ": " + quote(param.getValue()));
+            }
+            writer.write("},\n");
+            if (result.skipped != null) {
+                writer.write("    \"skipped\": " + quote(result.skipped) + "\n");
+            } else {
+                writer.write("    \"primaryMetric\": {\n");
+                writer.write("      \"score\": " + number(result.score()) + ",\n");
+                writer.write("      \"scoreStdev\": " + number(result.scoreStdev()) + ",\n");
+                writer.write("      \"scoreUnit\": \"ops/s\",\n");
+                writer.write("      \"rawData\": [");
+                for (int j = 0; j < result.iterations.size(); j++) {
+                    writer.write((j == 0 ? "" : ", ") + number(result.iterations.get(j).operationsPerSecond()));
+                }
+                writer.write("]\n");
+                writer.write("    },\n");
+                writer.write("    \"secondaryMetrics\": {\n");
+                writer.write("      \"gc.alloc.rate\": {\"score\": " + number(result.allocationRate()) +
+                        ", \"scoreUnit\": \"MB/sec\"},\n");
+                writer.write("      \"gc.alloc.rate.norm\": {\"score\": " + number(result.allocationPerOperation()) +
+                        ", \"scoreUnit\": \"B/op\"},\n");
+                writer.write("      \"gc.count\": {\"score\": " + result.total(iteration -> iteration.gcCount) +
+                        ", \"scoreUnit\": \"counts\"},\n");
+                writer.write("      \"gc.time\": {\"score\": " + result.total(iteration -> iteration.gcMillis) +
+                        ", \"scoreUnit\": \"ms\"},\n");
+                writer.write("      \"" + benchmark.workUnit() + ".rate\": {\"score\": " +
+                        number(result.workPerSecond()) + ", \"scoreUnit\": \"" + benchmark.workUnit() + "/s\"},\n");
+                writer.write("      \"solution.cost\": {\"score\": " + number(benchmark.lastCost) + "}\n");
+                writer.write("    }\n");
+            }
+            writer.write("  }" + (i + 1 < results.size() ? "," : "") + "\n");
+        }
+        writer.write("]\n");
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : String.valueOf(value);
+    }
+}